@@ -1,5 +1,6 @@
 package com.kayrasolutions.aem.foundation.api;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
@@ -82,4 +83,25 @@ public interface Traversable<T> {
 	 *         none exist
 	 */
 	List<T> findDescendants(Predicate<T> predicate);
+
+	/**
+	 * Get a list of descendant resources that match the given predicate condition,
+	 * stopping the traversal when the deadline has passed.
+	 *
+	 * @param predicate predicate to match descendant resources against
+	 * @param deadline  time after which no further descendants are visited
+	 * @return result containing the matches found before the deadline
+	 */
+	TraversalResult<T> findDescendants(Predicate<T> predicate, Instant deadline);
+
+	/**
+	 * Get a list of descendant resources that match the given predicate condition,
+	 * stopping the traversal after the given number of descendants have been
+	 * visited.
+	 *
+	 * @param predicate predicate to match descendant resources against
+	 * @param maxVisits maximum number of descendants to visit
+	 * @return result containing the matches found within the visit budget
+	 */
+	TraversalResult<T> findDescendants(Predicate<T> predicate, int maxVisits);
 }
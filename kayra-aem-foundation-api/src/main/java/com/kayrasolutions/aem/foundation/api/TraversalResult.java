@@ -0,0 +1,28 @@
+package com.kayrasolutions.aem.foundation.api;
+
+import java.util.List;
+
+/**
+ * Result of a bounded traversal, containing the matches found before the
+ * traversal completed or exhausted its time or node-visit budget.
+ *
+ * @param <T> type of traversed item
+ */
+public interface TraversalResult<T> {
+
+	/**
+	 * @return matching items in traversal order, or empty list if none were found
+	 */
+	List<T> getResults();
+
+	/**
+	 * @return true if the traversal stopped before visiting every descendant, in
+	 *         which case the results are partial
+	 */
+	boolean isTruncated();
+
+	/**
+	 * @return number of nodes visited during the traversal
+	 */
+	int getVisitedCount();
+}
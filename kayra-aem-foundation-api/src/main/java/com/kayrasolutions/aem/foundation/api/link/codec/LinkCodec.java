@@ -0,0 +1,59 @@
+package com.kayrasolutions.aem.foundation.api.link.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.kayrasolutions.aem.foundation.api.link.Link;
+
+/**
+ * Versioned binary encoding of links and link trees, suitable for persisting
+ * computed navigation trees to disk caches or sharing them between JVMs.
+ * Repeated strings (paths, titles, targets, etc.) are written once per stream
+ * and referenced by index thereafter.
+ */
+public interface LinkCodec {
+
+	/**
+	 * Encode a link, including its children, as a complete stream.
+	 *
+	 * @param link         link to encode
+	 * @param outputStream stream to write to, which is not closed
+	 * @throws IOException if an error occurs writing to the stream
+	 */
+	void encode(Link link, OutputStream outputStream) throws IOException;
+
+	/**
+	 * Decode a link, including its children, from a stream written by
+	 * <code>encode(Link, OutputStream)</code>. The stream is read without
+	 * additional buffering so that no data past the encoded link is consumed;
+	 * callers should supply a buffered stream.
+	 *
+	 * @param inputStream stream to read from, which is not closed
+	 * @return decoded link
+	 * @throws IOException if an error occurs reading from the stream or the stream
+	 *                     is not a valid or supported encoding
+	 */
+	Link decode(InputStream inputStream) throws IOException;
+
+	/**
+	 * Get a writer for encoding a sequence of links to a single stream, sharing
+	 * the string table across all links written.
+	 *
+	 * @param outputStream stream to write to
+	 * @return link writer
+	 * @throws IOException if an error occurs writing the stream header
+	 */
+	LinkWriter newWriter(OutputStream outputStream) throws IOException;
+
+	/**
+	 * Get a reader for decoding a sequence of links from a stream written by a
+	 * <code>LinkWriter</code>.
+	 *
+	 * @param inputStream stream to read from
+	 * @return link reader
+	 * @throws IOException if an error occurs reading the stream header or the
+	 *                     stream is not a valid or supported encoding
+	 */
+	LinkReader newReader(InputStream inputStream) throws IOException;
+}
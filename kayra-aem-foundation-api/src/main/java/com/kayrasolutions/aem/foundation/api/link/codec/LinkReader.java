@@ -0,0 +1,22 @@
+package com.kayrasolutions.aem.foundation.api.link.codec;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import com.kayrasolutions.aem.foundation.api.link.Link;
+
+/**
+ * Reads a sequence of links from a stream. Closing the reader closes the
+ * underlying stream.
+ */
+public interface LinkReader extends Closeable {
+
+	/**
+	 * Read the next link, including its children.
+	 *
+	 * @return next link, or null if the end of the sequence has been reached
+	 * @throws IOException if an error occurs reading from the stream or the data
+	 *                     is malformed
+	 */
+	Link read() throws IOException;
+}
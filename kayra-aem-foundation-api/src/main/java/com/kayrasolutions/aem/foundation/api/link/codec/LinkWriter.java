@@ -0,0 +1,22 @@
+package com.kayrasolutions.aem.foundation.api.link.codec;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+import com.kayrasolutions.aem.foundation.api.link.Link;
+
+/**
+ * Writes a sequence of links to a stream. Closing the writer marks the end of
+ * the sequence and closes the underlying stream.
+ */
+public interface LinkWriter extends Closeable, Flushable {
+
+	/**
+	 * Write a link, including its children.
+	 *
+	 * @param link link to write
+	 * @throws IOException if an error occurs writing to the stream
+	 */
+	void write(Link link) throws IOException;
+}
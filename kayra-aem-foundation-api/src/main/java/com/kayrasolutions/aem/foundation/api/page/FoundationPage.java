@@ -116,6 +116,21 @@ public interface FoundationPage extends Page, Accessible, Inheritable, Linkable,
 	 */
 	Link getLink(TitleType titleType, boolean mapped);
 
+	/**
+	 * Get a link with a specified title type for this item, optionally using the
+	 * vanity path of the page rather than the page path. The vanity path is not
+	 * used for pages containing a redirect.
+	 *
+	 * @param titleType    type of title to set on link
+	 * @param mapped       if true, the <code>Link</code> path will be routed
+	 *                     through the resource resolver to determine the mapped
+	 *                     path (e.g. without leading "/content").
+	 * @param preferVanity if true, the link will use the first vanity path of the
+	 *                     page, if one exists
+	 * @return link
+	 */
+	Link getLink(TitleType titleType, boolean mapped, boolean preferVanity);
+
 	/**
 	 * Get a link builder for the current resource path.
 	 *
@@ -158,6 +173,21 @@ public interface FoundationPage extends Page, Accessible, Inheritable, Linkable,
 	 */
 	Link getNavigationLink(boolean isActive, boolean mapped);
 
+	/**
+	 * Get a navigation link for this page containing an active state, optionally
+	 * following redirects across multiple hops so that the link points directly to
+	 * the final redirect target.
+	 *
+	 * @param isActive         active state to be set on returned link
+	 * @param mapped           if true, the <code>NavigationLink</code> path will be
+	 *                         routed through the resource resolver to determine
+	 *                         the mapped path (e.g. without leading "/content").
+	 * @param resolveRedirects if true, redirect chains are followed to the final
+	 *                         target, stopping at cycles
+	 * @return navigation link
+	 */
+	Link getNavigationLink(boolean isActive, boolean mapped, boolean resolveRedirects);
+
 	/**
 	 * Get the template path for this page. This method is preferred over
 	 * getTemplate().getPath(), which is dependent on access to /apps and will
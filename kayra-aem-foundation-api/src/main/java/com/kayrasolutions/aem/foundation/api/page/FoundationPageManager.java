@@ -3,12 +3,18 @@ package com.kayrasolutions.aem.foundation.api.page;
 import com.day.cq.wcm.api.Page;
 import com.day.cq.wcm.api.PageManager;
 import com.day.cq.wcm.api.WCMException;
+import com.kayrasolutions.aem.foundation.api.TraversalResult;
+import com.kayrasolutions.aem.foundation.api.page.bulk.BulkPageOperationResult;
+import com.kayrasolutions.aem.foundation.api.page.bulk.BulkProgressListener;
+import com.kayrasolutions.aem.foundation.api.page.bulk.PageOperation;
 import org.apache.sling.api.resource.Resource;
 
 import javax.jcr.query.Query;
+import java.time.Instant;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
 
 /**
@@ -46,6 +52,31 @@ public interface FoundationPageManager extends PageManager {
 	 */
 	List<FoundationPage> findPages(String rootPath, Predicate<FoundationPage> predicate);
 
+	/**
+	 * Find descendant pages of the given path that match the predicate, stopping
+	 * the traversal when the deadline has passed.
+	 *
+	 * @param rootPath  root path
+	 * @param predicate predicate to determine if a page should be included in the
+	 *                  result list
+	 * @param deadline  time after which no further pages are visited
+	 * @return result containing the pages found before the deadline
+	 */
+	TraversalResult<FoundationPage> findPages(String rootPath, Predicate<FoundationPage> predicate,
+			Instant deadline);
+
+	/**
+	 * Find descendant pages of the given path that match the predicate, stopping
+	 * the traversal after the given number of pages have been visited.
+	 *
+	 * @param rootPath  root path
+	 * @param predicate predicate to determine if a page should be included in the
+	 *                  result list
+	 * @param maxVisits maximum number of pages to visit
+	 * @return result containing the pages found within the visit budget
+	 */
+	TraversalResult<FoundationPage> findPages(String rootPath, Predicate<FoundationPage> predicate, int maxVisits);
+
 	/**
 	 * Decorate the given page.
 	 *
@@ -71,6 +102,97 @@ public interface FoundationPageManager extends PageManager {
 	 */
 	List<FoundationPage> search(Query query, int limit);
 
+	/**
+	 * Get the pages for the given paths, omitting paths that do not address a page
+	 * readable by the resource resolver of this page manager.
+	 *
+	 * @param paths page paths
+	 * @return pages, in path order
+	 */
+	List<FoundationPage> getPages(Collection<String> paths);
+
+	/**
+	 * Asynchronously find all descendant pages of the given path containing the
+	 * specified tags. The search is executed with a service resource resolver, so
+	 * the future contains page paths rather than pages. Resource resolvers are not
+	 * thread-safe; callers must resolve the paths on their own thread using
+	 * <code>getPages(Collection)</code>, which omits pages that are not readable
+	 * by the current user.
+	 *
+	 * @param rootPath root path
+	 * @param tagIds   set of tag IDs
+	 * @param matchOne if true, 'OR' the specified tag IDs, 'AND' otherwise
+	 * @return future containing paths of pages with the specified tags
+	 */
+	CompletableFuture<List<String>> findPagesAsync(String rootPath, Collection<String> tagIds, boolean matchOne);
+
+	/**
+	 * Asynchronously find all descendant pages of the given path matching the
+	 * template path. The future contains page paths to be resolved by the caller
+	 * using <code>getPages(Collection)</code>.
+	 *
+	 * @param rootPath     root path
+	 * @param templatePath template path
+	 * @return future containing paths of pages matching the specified template
+	 */
+	CompletableFuture<List<String>> findPagesAsync(String rootPath, String templatePath);
+
+	/**
+	 * Asynchronously find all descendant pages of the given path that match the
+	 * predicate. The predicate is evaluated against pages acquired from a service
+	 * resource resolver and must be safe to call from another thread. The future
+	 * contains page paths to be resolved by the caller using
+	 * <code>getPages(Collection)</code>.
+	 *
+	 * @param rootPath  root path
+	 * @param predicate predicate to determine if a page should be included in the
+	 *                  result list
+	 * @return future containing paths of pages matching filter criteria
+	 */
+	CompletableFuture<List<String>> findPagesAsync(String rootPath, Predicate<FoundationPage> predicate);
+
+	/**
+	 * Asynchronously search for pages using a query statement. A
+	 * <code>Query</code> instance is bound to the session that created it, so the
+	 * statement is recreated for the service session executing the search. The
+	 * future contains page paths to be resolved by the caller using
+	 * <code>getPages(Collection)</code>.
+	 *
+	 * @param statement query statement
+	 * @param language  query language (e.g. <code>Query.JCR_SQL2</code>)
+	 * @return future containing the list of page paths for the query result
+	 */
+	CompletableFuture<List<String>> searchAsync(String statement, String language);
+
+	/**
+	 * Asynchronously search for pages using a query statement with the given result
+	 * limit.
+	 *
+	 * @param statement query statement
+	 * @param language  query language (e.g. <code>Query.JCR_SQL2</code>)
+	 * @param limit     result limit
+	 * @return future containing the list of page paths for the query result
+	 */
+	CompletableFuture<List<String>> searchAsync(String statement, String language, int limit);
+
+	/**
+	 * Execute a list of create, copy, and move operations, committing changes in
+	 * batches rather than after each operation. An operation that fails is
+	 * recorded in the result and its partial changes are reverted; the pending
+	 * operations of the batch are then re-executed and processing continues with
+	 * the next operation. If a batch fails to commit, the batch is reverted and
+	 * each of its operations is recorded as failed. The underlying
+	 * <code>PageManager</code> saves move operations immediately, so pending
+	 * operations are committed before each move and each move is committed as a
+	 * batch of its own.
+	 *
+	 * @param operations operations to execute in order
+	 * @param batchSize  number of operations per commit
+	 * @param listener   listener notified after each batch, or null
+	 * @return summary of succeeded and failed operations
+	 */
+	BulkPageOperationResult execute(List<PageOperation> operations, int batchSize, BulkProgressListener listener);
+
 	// overrides
 
 	/**
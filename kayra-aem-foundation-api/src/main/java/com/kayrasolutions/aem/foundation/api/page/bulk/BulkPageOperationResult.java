@@ -0,0 +1,37 @@
+package com.kayrasolutions.aem.foundation.api.page.bulk;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summary of a completed bulk page operation.
+ */
+public interface BulkPageOperationResult {
+
+	/**
+	 * @return paths of the created, copied, or moved pages that were successfully
+	 *         committed, in operation order
+	 */
+	List<String> getSucceededPaths();
+
+	/**
+	 * @return map of the indexes of failed operations, in the submitted operation
+	 *         list, to the corresponding error message, in operation order
+	 */
+	Map<Integer, String> getFailures();
+
+	/**
+	 * @return number of batches committed
+	 */
+	int getBatchCount();
+
+	/**
+	 * @return total elapsed time in milliseconds
+	 */
+	long getElapsedMillis();
+
+	/**
+	 * @return number of successful operations per second
+	 */
+	double getPagesPerSecond();
+}
@@ -0,0 +1,16 @@
+package com.kayrasolutions.aem.foundation.api.page.bulk;
+
+/**
+ * Callback notified after each batch of a bulk page operation is committed.
+ */
+@FunctionalInterface
+public interface BulkProgressListener {
+
+	/**
+	 * @param processed      number of operations processed so far, including
+	 *                       failures
+	 * @param total          total number of operations
+	 * @param pagesPerSecond throughput since the bulk operation started
+	 */
+	void onProgress(int processed, int total, double pagesPerSecond);
+}
@@ -0,0 +1,205 @@
+package com.kayrasolutions.aem.foundation.api.page.bulk;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Objects;
+
+/**
+ * Specification of a single create, copy, or move operation to be executed as
+ * part of a bulk page operation.
+ */
+public final class PageOperation {
+
+	/**
+	 * Enumeration of bulk page operation types.
+	 */
+	public enum Type {
+
+		CREATE,
+
+		COPY,
+
+		MOVE
+	}
+
+	/**
+	 * Create a new page.
+	 *
+	 * @param parentPath the path of the parent page
+	 * @param pageName   the name of the new page
+	 * @param template   the template for the new page
+	 * @param title      the title of the new page
+	 * @return create operation
+	 */
+	public static PageOperation create(final String parentPath, final String pageName, final String template,
+			final String title) {
+		return new PageOperation(Type.CREATE, checkNotNull(parentPath), pageName, null, template, title, null,
+				false, false);
+	}
+
+	/**
+	 * Copy an existing page.
+	 *
+	 * @param path            the path of the page to copy
+	 * @param destination     the destination path
+	 * @param beforeName      the name of the next page, or null to order the page
+	 *                        at the end
+	 * @param shallow         if true, a non-recursive copy is performed
+	 * @param resolveConflict if true, resolves name conflict if destination already
+	 *                        exists
+	 * @return copy operation
+	 */
+	public static PageOperation copy(final String path, final String destination, final String beforeName,
+			final boolean shallow, final boolean resolveConflict) {
+		return new PageOperation(Type.COPY, checkNotNull(path), null, checkNotNull(destination), null, null,
+				beforeName, shallow, resolveConflict);
+	}
+
+	/**
+	 * Move an existing page.
+	 *
+	 * @param path            the path of the page to move
+	 * @param destination     the destination path
+	 * @param beforeName      the name of the next page, or null to order the page
+	 *                        at the end
+	 * @param shallow         if true, only the page content is moved
+	 * @param resolveConflict if true, resolves name conflict if destination already
+	 *                        exists
+	 * @return move operation
+	 */
+	public static PageOperation move(final String path, final String destination, final String beforeName,
+			final boolean shallow, final boolean resolveConflict) {
+		return new PageOperation(Type.MOVE, checkNotNull(path), null, checkNotNull(destination), null, null,
+				beforeName, shallow, resolveConflict);
+	}
+
+	private final Type type;
+
+	private final String path;
+
+	private final String name;
+
+	private final String destination;
+
+	private final String template;
+
+	private final String title;
+
+	private final String beforeName;
+
+	private final boolean shallow;
+
+	private final boolean resolveConflict;
+
+	private PageOperation(final Type type, final String path, final String name, final String destination,
+			final String template, final String title, final String beforeName, final boolean shallow,
+			final boolean resolveConflict) {
+		this.type = type;
+		this.path = path;
+		this.name = name;
+		this.destination = destination;
+		this.template = template;
+		this.title = title;
+		this.beforeName = beforeName;
+		this.shallow = shallow;
+		this.resolveConflict = resolveConflict;
+	}
+
+	/**
+	 * @return operation type
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * @return parent path for create operations, or source page path for copy and
+	 *         move operations
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * @return page name for create operations, otherwise null
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return destination path for copy and move operations, otherwise null
+	 */
+	public String getDestination() {
+		return destination;
+	}
+
+	/**
+	 * @return template path for create operations, otherwise null
+	 */
+	public String getTemplate() {
+		return template;
+	}
+
+	/**
+	 * @return page title for create operations, otherwise null
+	 */
+	public String getTitle() {
+		return title;
+	}
+
+	/**
+	 * @return name of the next page for copy and move operations, otherwise null
+	 */
+	public String getBeforeName() {
+		return beforeName;
+	}
+
+	/**
+	 * @return true if copy or move operation is shallow
+	 */
+	public boolean isShallow() {
+		return shallow;
+	}
+
+	/**
+	 * @return true if name conflicts should be resolved for copy and move
+	 *         operations
+	 */
+	public boolean isResolveConflict() {
+		return resolveConflict;
+	}
+
+	@Override
+	public boolean equals(final Object other) {
+		final boolean equals;
+
+		if (this == other) {
+			equals = true;
+		} else if (other instanceof PageOperation) {
+			final PageOperation operation = (PageOperation) other;
+
+			equals = type == operation.type && Objects.equal(path, operation.path)
+					&& Objects.equal(name, operation.name) && Objects.equal(destination, operation.destination)
+					&& Objects.equal(template, operation.template) && Objects.equal(title, operation.title)
+					&& Objects.equal(beforeName, operation.beforeName) && shallow == operation.shallow
+					&& resolveConflict == operation.resolveConflict;
+		} else {
+			equals = false;
+		}
+
+		return equals;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(type, path, name, destination, template, title, beforeName, shallow,
+				resolveConflict);
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this).add("type", type).add("path", path).add("name", name)
+				.add("destination", destination).toString();
+	}
+}
@@ -0,0 +1,48 @@
+package com.kayrasolutions.aem.foundation.core.link.builders.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kayrasolutions.aem.foundation.api.link.Link;
+
+/**
+ * Time and allocation of building links without a resource resolver, so that
+ * only the builder itself is measured. Run with <code>-prof gc</code> to report
+ * allocated bytes per link.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkBuilderBenchmark {
+
+	private static final String PATH = "/content/kayra/en/products/shoes";
+
+	@Benchmark
+	public Link pageLink() {
+		return new DefaultLinkBuilder(PATH, null).build();
+	}
+
+	@Benchmark
+	public Link pageLinkWithSelectorsAndParameters() {
+		return new DefaultLinkBuilder(PATH, null).addSelector("mobile").addSelector("grid")
+				.addParameter("q", "red shoes & socks").addParameter("page", "2").setSuffix("/filter/size").build();
+	}
+
+	@Benchmark
+	public Link externalLinkWithParameters() {
+		return new DefaultLinkBuilder("https://www.kayrasolutions.com/search", null).addParameter("q", "aem foundation")
+				.addParameter("lang", "en").build();
+	}
+}
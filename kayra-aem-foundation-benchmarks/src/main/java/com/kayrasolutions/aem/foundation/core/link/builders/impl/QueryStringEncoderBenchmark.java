@@ -0,0 +1,47 @@
+package com.kayrasolutions.aem.foundation.core.link.builders.impl;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Query string encoder compared with the <code>URLEncoder</code> it replaced,
+ * for a value that needs no escaping, a value with spaces and reserved
+ * characters, and a non-ASCII value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryStringEncoderBenchmark {
+
+	@Param({ "summer-sale", "red shoes & socks", "\u00e7ocuk \u00fcr\u00fcnleri" })
+	public String value;
+
+	@Benchmark
+	public String queryStringEncoder() {
+		final StringBuilder builder = new StringBuilder(64);
+
+		QueryStringEncoder.encode(value, builder);
+
+		return builder.toString();
+	}
+
+	@Benchmark
+	public String urlEncoder() throws UnsupportedEncodingException {
+		return new StringBuilder(64).append(URLEncoder.encode(value, "UTF-8")).toString();
+	}
+}
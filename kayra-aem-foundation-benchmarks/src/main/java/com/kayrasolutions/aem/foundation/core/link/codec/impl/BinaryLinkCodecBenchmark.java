@@ -0,0 +1,115 @@
+package com.kayrasolutions.aem.foundation.core.link.codec.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kayrasolutions.aem.foundation.api.link.Link;
+import com.kayrasolutions.aem.foundation.api.link.builders.LinkBuilder;
+import com.kayrasolutions.aem.foundation.core.link.builders.impl.DefaultLinkBuilder;
+
+/**
+ * Binary link codec compared with Java serialization for a navigation tree of
+ * a root, its sections, their pages, and the children of each page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryLinkCodecBenchmark {
+
+	@Param({ "4", "12" })
+	public int breadth;
+
+	private final BinaryLinkCodec codec = new BinaryLinkCodec();
+
+	private Link tree;
+
+	private byte[] binary;
+
+	private byte[] serialized;
+
+	@Setup
+	public void setup() throws IOException {
+		tree = buildTree();
+		binary = binaryEncode();
+		serialized = javaSerialize();
+	}
+
+	@Benchmark
+	public byte[] binaryEncode() throws IOException {
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(8192);
+
+		codec.encode(tree, outputStream);
+
+		return outputStream.toByteArray();
+	}
+
+	@Benchmark
+	public Link binaryDecode() throws IOException {
+		return codec.decode(new ByteArrayInputStream(binary));
+	}
+
+	@Benchmark
+	public byte[] javaSerialize() throws IOException {
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(8192);
+
+		try (final ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+			objectOutputStream.writeObject(tree);
+		}
+
+		return outputStream.toByteArray();
+	}
+
+	@Benchmark
+	public Link javaDeserialize() throws IOException, ClassNotFoundException {
+		try (final ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+			return (Link) objectInputStream.readObject();
+		}
+	}
+
+	// internals
+
+	private Link buildTree() {
+		final LinkBuilder root = new DefaultLinkBuilder("/content/kayra/en", null).setTitle("Home");
+
+		for (int i = 0; i < breadth; i++) {
+			final String sectionPath = "/content/kayra/en/section-" + i;
+			final LinkBuilder section = new DefaultLinkBuilder(sectionPath, null).setTitle("Section " + i);
+
+			for (int j = 0; j < breadth; j++) {
+				final String pagePath = sectionPath + "/page-" + j;
+				final LinkBuilder page = new DefaultLinkBuilder(pagePath, null).setTitle("Page " + j)
+						.addProperty("navTitle", "Page " + j).setActive(j == 0);
+
+				for (int k = 0; k < 4; k++) {
+					page.addChild(new DefaultLinkBuilder(pagePath + "/child-" + k, null).setTitle("Child " + k)
+							.setTarget("_blank").build());
+				}
+
+				section.addChild(page.build());
+			}
+
+			root.addChild(section.build());
+		}
+
+		return root.build();
+	}
+}
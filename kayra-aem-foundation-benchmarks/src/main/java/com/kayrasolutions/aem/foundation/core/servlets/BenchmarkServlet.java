@@ -0,0 +1,10 @@
+package com.kayrasolutions.aem.foundation.core.servlets;
+
+/**
+ * JSON response servlet exposing the shared writers and encoding to benchmarks
+ * in this package.
+ */
+final class BenchmarkServlet extends AbstractJsonResponseServlet {
+
+	private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,58 @@
+package com.kayrasolutions.aem.foundation.core.servlets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Response item with the strings, dates, and lists typical of page listings.
+ */
+public final class Item {
+
+	/**
+	 * @param size number of items
+	 * @return list of distinct items
+	 */
+	static List<Item> list(final int size) {
+		final List<Item> items = new ArrayList<>(size);
+
+		for (int i = 0; i < size; i++) {
+			items.add(new Item("/content/kayra/en/page-" + i, "Page " + i, new Date(1600000000000L + i * 60000L),
+					Arrays.asList("kayra:topic/" + i, "kayra:region/emea")));
+		}
+
+		return items;
+	}
+
+	private final String path;
+
+	private final String title;
+
+	private final Date lastModified;
+
+	private final List<String> tags;
+
+	private Item(final String path, final String title, final Date lastModified, final List<String> tags) {
+		this.path = path;
+		this.title = title;
+		this.lastModified = lastModified;
+		this.tags = tags;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public Date getLastModified() {
+		return lastModified;
+	}
+
+	public List<String> getTags() {
+		return tags;
+	}
+}
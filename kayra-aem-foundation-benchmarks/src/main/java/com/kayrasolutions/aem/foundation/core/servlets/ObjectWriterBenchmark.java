@@ -0,0 +1,78 @@
+package com.kayrasolutions.aem.foundation.core.servlets;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.text.SimpleDateFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Shared object writers of the JSON response servlet compared with the object
+ * mapper that was previously created and configured for each response, for
+ * small and large responses containing dates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectWriterBenchmark {
+
+	private static final JsonFactory FACTORY = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+	@Param({ "1", "100" })
+	public int size;
+
+	private final BenchmarkServlet servlet = new BenchmarkServlet();
+
+	private List<Item> items;
+
+	@Setup
+	public void setup() {
+		items = Item.list(size);
+	}
+
+	@Benchmark
+	public String mapperPerResponse() throws IOException {
+		final ObjectMapper mapper = new ObjectMapper().setDateFormat(
+				new SimpleDateFormat(AbstractJsonResponseServlet.DEFAULT_DATE_FORMAT, Locale.US));
+
+		return write(mapper.writer());
+	}
+
+	@Benchmark
+	public String sharedWriter() throws IOException {
+		return write(servlet.getWriter(AbstractJsonResponseServlet.DEFAULT_DATE_FORMAT, Locale.US));
+	}
+
+	// internals
+
+	private String write(final ObjectWriter writer) throws IOException {
+		final StringWriter stringWriter = new StringWriter(size * 256);
+
+		try (final JsonGenerator generator = FACTORY.createGenerator(stringWriter)) {
+			writer.writeValue(generator, items);
+		}
+
+		return stringWriter.toString();
+	}
+}
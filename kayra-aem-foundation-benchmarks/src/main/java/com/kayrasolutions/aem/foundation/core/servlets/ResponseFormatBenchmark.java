@@ -0,0 +1,66 @@
+package com.kayrasolutions.aem.foundation.core.servlets;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kayrasolutions.aem.foundation.core.servlets.impl.ResponseFormat;
+
+/**
+ * Encoding of responses in each negotiated format by the JSON response servlet,
+ * and parsing of the encoded responses into a tree, as a generic client would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+	@Param({ "JSON", "SMILE", "CBOR" })
+	public ResponseFormat format;
+
+	@Param({ "1", "100" })
+	public int size;
+
+	private final BenchmarkServlet servlet = new BenchmarkServlet();
+
+	private List<Item> items;
+
+	private byte[] encoded;
+
+	private ObjectMapper mapper;
+
+	@Setup
+	public void setup() throws IOException {
+		items = Item.list(size);
+		encoded = encode();
+		mapper = new ObjectMapper(format.getFactory(new JsonFactory()));
+	}
+
+	@Benchmark
+	public byte[] encode() throws IOException {
+		return servlet.encode(items, format);
+	}
+
+	@Benchmark
+	public JsonNode parse() throws IOException {
+		return mapper.readTree(encoded);
+	}
+}
@@ -4,12 +4,20 @@ import org.apache.sling.api.adapter.AdapterFactory;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.api.resource.ResourceResolver;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.osgi.service.component.annotations.ReferencePolicyOption;
 import org.osgi.service.component.propertytypes.ServiceDescription;
 
 import com.kayrasolutions.aem.foundation.core.page.impl.DefaultFoundationPageManager;
+import com.kayrasolutions.aem.foundation.core.page.impl.RecentResultsCache;
 import com.day.cq.wcm.api.Page;
 import com.kayrasolutions.aem.foundation.api.page.FoundationPage;
 import com.kayrasolutions.aem.foundation.api.page.FoundationPageManager;
+import com.kayrasolutions.aem.foundation.core.admission.AdmissionController;
+import com.kayrasolutions.aem.foundation.core.executor.FoundationExecutor;
+import com.kayrasolutions.aem.foundation.core.vanity.VanityIndex;
 
 @Component(service = AdapterFactory.class, property = { "adaptables=org.apache.sling.api.resource.Resource",
 		"adaptables=org.apache.sling.api.resource.ResourceResolver",
@@ -18,6 +26,24 @@ import com.kayrasolutions.aem.foundation.api.page.FoundationPageManager;
 @ServiceDescription("Kayra Solutions Foundation Adapter Factory")
 public final class FoundationAdapterFactory implements AdapterFactory {
 
+	// all services are optional, so that page managers remain available (searching synchronously and without
+	// admission control) while any of them is missing
+	@Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC,
+			policyOption = ReferencePolicyOption.GREEDY)
+	private volatile FoundationExecutor executor;
+
+	@Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC,
+			policyOption = ReferencePolicyOption.GREEDY)
+	private volatile AdmissionController admissionController;
+
+	@Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC,
+			policyOption = ReferencePolicyOption.GREEDY)
+	private volatile RecentResultsCache recentResultsCache;
+
+	@Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC,
+			policyOption = ReferencePolicyOption.GREEDY)
+	private volatile VanityIndex vanityIndex;
+
 	@Override
 	public <AdapterType> AdapterType getAdapter(final Object adaptable, final Class<AdapterType> type) {
 		AdapterType result = null;
@@ -37,7 +63,9 @@ public final class FoundationAdapterFactory implements AdapterFactory {
 		AdapterType result = null;
 
 		if (type == FoundationPageManager.class) {
-			result = (AdapterType) new DefaultFoundationPageManager(resourceResolver);
+			// resource resolvers cache their adapters, so the services are passed to pages once per resolver
+			result = (AdapterType) new DefaultFoundationPageManager(resourceResolver, executor,
+					admissionController, vanityIndex, recentResultsCache);
 		}
 
 		return result;
@@ -0,0 +1,48 @@
+package com.kayrasolutions.aem.foundation.core.admission;
+
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of expensive repository operations running concurrently.
+ * Each operation type has its own set of permits and a bounded queue of callers
+ * waiting for a permit. When the queue is full or a caller waits longer than the
+ * configured timeout, the operation is rejected and either the fallback result
+ * is returned or an <code>AdmissionRejectedException</code> is thrown, depending
+ * on configuration.
+ * <p>
+ * Nested calls on a thread that already holds a permit are executed without
+ * acquiring another permit.
+ */
+public interface AdmissionController {
+
+	/**
+	 * Execute a task if a permit for the given operation can be acquired.
+	 *
+	 * @param operation operation type
+	 * @param task      task to execute when admitted
+	 * @param fallback  supplier of a degraded (cached or partial) result if the
+	 *                  task is rejected
+	 * @param <T>       result type
+	 * @return task result, or fallback result if rejected
+	 * @throws AdmissionRejectedException if rejected and degradation is disabled
+	 */
+	<T> T execute(LimitedOperation operation, Supplier<T> task, Supplier<T> fallback);
+
+	/**
+	 * @param operation operation type
+	 * @return number of operations of this type currently running
+	 */
+	int getActiveCount(LimitedOperation operation);
+
+	/**
+	 * @param operation operation type
+	 * @return number of callers currently waiting for a permit
+	 */
+	int getQueueDepth(LimitedOperation operation);
+
+	/**
+	 * @param operation operation type
+	 * @return number of operations of this type rejected since activation
+	 */
+	long getRejectedCount(LimitedOperation operation);
+}
@@ -0,0 +1,23 @@
+package com.kayrasolutions.aem.foundation.core.admission;
+
+/**
+ * Thrown when an operation is rejected by the <code>AdmissionController</code>
+ * and the controller is not configured to degrade to fallback results, or no
+ * fallback result is available for the operation.
+ */
+public final class AdmissionRejectedException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final LimitedOperation operation;
+
+	public AdmissionRejectedException(final LimitedOperation operation) {
+		super("operation rejected, no permits available : " + operation);
+
+		this.operation = operation;
+	}
+
+	public LimitedOperation getOperation() {
+		return operation;
+	}
+}
@@ -0,0 +1,32 @@
+package com.kayrasolutions.aem.foundation.core.admission;
+
+/**
+ * Enumeration of repository operations subject to admission control.
+ */
+public enum LimitedOperation {
+
+	/**
+	 * Page searches using a JCR query.
+	 */
+	SEARCH("search"),
+
+	/**
+	 * Page searches by tag, template, or predicate beneath a root path.
+	 */
+	FIND_PAGES("findPages"),
+
+	/**
+	 * Deep traversal of descendant pages.
+	 */
+	FIND_DESCENDANTS("findDescendants");
+
+	private final String metricName;
+
+	LimitedOperation(final String metricName) {
+		this.metricName = metricName;
+	}
+
+	public String getMetricName() {
+		return metricName;
+	}
+}
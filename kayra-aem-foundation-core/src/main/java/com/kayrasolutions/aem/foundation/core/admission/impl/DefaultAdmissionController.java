@@ -0,0 +1,201 @@
+package com.kayrasolutions.aem.foundation.core.admission.impl;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.sling.commons.metrics.Counter;
+import org.apache.sling.commons.metrics.MetricsService;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.propertytypes.ServiceDescription;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.kayrasolutions.aem.foundation.core.admission.AdmissionController;
+import com.kayrasolutions.aem.foundation.core.admission.AdmissionRejectedException;
+import com.kayrasolutions.aem.foundation.core.admission.LimitedOperation;
+
+@Component(service = AdmissionController.class)
+@Designate(ocd = DefaultAdmissionController.Configuration.class)
+@ServiceDescription("Kayra Solutions Foundation Admission Controller")
+public final class DefaultAdmissionController implements AdmissionController {
+
+	@ObjectClassDefinition(name = "Kayra Solutions Foundation Admission Controller")
+	public @interface Configuration {
+
+		@AttributeDefinition(name = "Search Permits", description = "Maximum number of concurrent query searches.")
+		int searchPermits() default 8;
+
+		@AttributeDefinition(name = "Find Pages Permits", description = "Maximum number of concurrent findPages "
+				+ "operations.")
+		int findPagesPermits() default 4;
+
+		@AttributeDefinition(name = "Find Descendants Permits", description = "Maximum number of concurrent deep "
+				+ "descendant traversals.")
+		int findDescendantsPermits() default 4;
+
+		@AttributeDefinition(name = "Max Queue Depth", description = "Maximum number of callers waiting for a permit "
+				+ "per operation before further callers are rejected.")
+		int maxQueueDepth() default 16;
+
+		@AttributeDefinition(name = "Max Wait", description = "Maximum time in milliseconds to wait for a permit.")
+		long maxWaitMillis() default 2000;
+
+		@AttributeDefinition(name = "Degrade", description = "If true, rejected operations return cached or partial "
+				+ "results. Otherwise, an exception is thrown.")
+		boolean degrade() default true;
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(DefaultAdmissionController.class);
+
+	private static final String METRIC_PREFIX = "foundation.admission.";
+
+	private final ThreadLocal<Boolean> admitted = new ThreadLocal<>();
+
+	private final Map<LimitedOperation, Limiter> limiters = new EnumMap<>(LimitedOperation.class);
+
+	@Reference
+	private MetricsService metricsService;
+
+	private int maxQueueDepth;
+
+	private long maxWaitMillis;
+
+	private boolean degrade;
+
+	@Override
+	public <T> T execute(final LimitedOperation operation, final Supplier<T> task, final Supplier<T> fallback) {
+		final T result;
+
+		if (Boolean.TRUE.equals(admitted.get())) {
+			result = task.get();
+		} else {
+			final Limiter limiter = limiters.get(operation);
+
+			if (limiter.acquire()) {
+				admitted.set(Boolean.TRUE);
+
+				try {
+					result = task.get();
+				} finally {
+					admitted.remove();
+					limiter.release();
+				}
+			} else {
+				LOG.warn("rejected operation = {}, active = {}, queue depth = {}", operation,
+						getActiveCount(operation), getQueueDepth(operation));
+
+				if (degrade) {
+					result = fallback.get();
+				} else {
+					throw new AdmissionRejectedException(operation);
+				}
+			}
+		}
+
+		return result;
+	}
+
+	@Override
+	public int getActiveCount(final LimitedOperation operation) {
+		return limiters.get(operation).active.get();
+	}
+
+	@Override
+	public int getQueueDepth(final LimitedOperation operation) {
+		return limiters.get(operation).waiting.get();
+	}
+
+	@Override
+	public long getRejectedCount(final LimitedOperation operation) {
+		return limiters.get(operation).rejected.get();
+	}
+
+	@Activate
+	protected void activate(final Configuration configuration) {
+		maxQueueDepth = configuration.maxQueueDepth();
+		maxWaitMillis = configuration.maxWaitMillis();
+		degrade = configuration.degrade();
+
+		limiters.put(LimitedOperation.SEARCH, new Limiter(LimitedOperation.SEARCH, configuration.searchPermits()));
+		limiters.put(LimitedOperation.FIND_PAGES, new Limiter(LimitedOperation.FIND_PAGES,
+				configuration.findPagesPermits()));
+		limiters.put(LimitedOperation.FIND_DESCENDANTS, new Limiter(LimitedOperation.FIND_DESCENDANTS,
+				configuration.findDescendantsPermits()));
+	}
+
+	/**
+	 * Permits and counters for a single operation type.
+	 */
+	private final class Limiter {
+
+		private final Semaphore permits;
+
+		private final AtomicInteger active = new AtomicInteger();
+
+		private final AtomicInteger waiting = new AtomicInteger();
+
+		private final AtomicLong rejected = new AtomicLong();
+
+		private final Counter activeCounter;
+
+		private final Counter queueDepthCounter;
+
+		private final Counter rejectedCounter;
+
+		private Limiter(final LimitedOperation operation, final int permits) {
+			this.permits = new Semaphore(permits, true);
+
+			final String prefix = METRIC_PREFIX + operation.getMetricName();
+
+			activeCounter = metricsService.counter(prefix + ".active");
+			queueDepthCounter = metricsService.counter(prefix + ".queueDepth");
+			rejectedCounter = metricsService.counter(prefix + ".rejected");
+		}
+
+		private boolean acquire() {
+			boolean acquired = permits.tryAcquire();
+
+			if (!acquired) {
+				if (waiting.incrementAndGet() <= maxQueueDepth) {
+					queueDepthCounter.increment();
+
+					try {
+						acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						queueDepthCounter.decrement();
+					}
+				}
+
+				waiting.decrementAndGet();
+			}
+
+			if (acquired) {
+				active.incrementAndGet();
+				activeCounter.increment();
+			} else {
+				rejected.incrementAndGet();
+				rejectedCounter.increment();
+			}
+
+			return acquired;
+		}
+
+		private void release() {
+			active.decrementAndGet();
+			activeCounter.decrement();
+			permits.release();
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package com.kayrasolutions.aem.foundation.core.cache;
+
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.jcr.Session;
+
+import org.apache.sling.api.resource.LoginException;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.propertytypes.ServiceDescription;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Reads the group membership used for principal fingerprints with a service
+ * user, so that fingerprints include groups the user's own session is not
+ * permitted to read. Fingerprints are cached per user for a configurable time,
+ * which bounds how long a membership change takes to be reflected.
+ */
+@Component(service = GroupMembershipReader.class, immediate = true)
+@Designate(ocd = GroupMembershipReader.Configuration.class)
+@ServiceDescription("Kayra Solutions Group Membership Reader")
+public final class GroupMembershipReader {
+
+	@ObjectClassDefinition(name = "Kayra Solutions Group Membership Reader")
+	public @interface Configuration {
+
+		@AttributeDefinition(name = "Sub-Service Name", description = "Sub-service name used to acquire the service "
+				+ "resource resolver for reading group membership. The service user requires read access to users "
+				+ "and groups.")
+		String subServiceName() default "foundation-service";
+
+		@AttributeDefinition(name = "Cache Seconds", description = "Number of seconds a user's fingerprint is "
+				+ "cached before group membership is read again.")
+		long cacheSeconds() default 60;
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(GroupMembershipReader.class);
+
+	@Reference
+	private ResourceResolverFactory resourceResolverFactory;
+
+	private volatile String subServiceName;
+
+	private volatile Cache<String, String> fingerprints;
+
+	@Activate
+	protected void activate(final Configuration configuration) {
+		subServiceName = configuration.subServiceName();
+		fingerprints = CacheBuilder.newBuilder().expireAfterWrite(configuration.cacheSeconds(), TimeUnit.SECONDS)
+				.build();
+
+		PrincipalFingerprint.setGroupMembershipReader(this);
+
+		LOG.info("activated group membership reader with sub-service = {}, cache seconds = {}", subServiceName,
+				configuration.cacheSeconds());
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		PrincipalFingerprint.setGroupMembershipReader(null);
+
+		fingerprints.invalidateAll();
+	}
+
+	/**
+	 * Get the fingerprint of a user's group membership, read with the service
+	 * user.
+	 *
+	 * @param userId user ID
+	 * @return fingerprint, or a fingerprint of the user's own if group membership
+	 *         cannot be read
+	 */
+	String getFingerprint(final String userId) {
+		String fingerprint;
+
+		try {
+			fingerprint = fingerprints.get(userId, () -> read(userId));
+		} catch (ExecutionException e) {
+			LOG.error("error reading group membership for user : " + userId, e.getCause());
+
+			fingerprint = PrincipalFingerprint.getUserFingerprint(userId);
+		}
+
+		return fingerprint;
+	}
+
+	// internals
+
+	private String read(final String userId) throws LoginException {
+		try (final ResourceResolver resourceResolver = resourceResolverFactory.getServiceResourceResolver(
+				Collections.singletonMap(ResourceResolverFactory.SUBSERVICE, subServiceName))) {
+			return PrincipalFingerprint.compute(userId, resourceResolver.adaptTo(Session.class));
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package com.kayrasolutions.aem.foundation.core.cache;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.apache.jackrabbit.api.JackrabbitSession;
+import org.apache.jackrabbit.api.security.principal.PrincipalIterator;
+import org.apache.jackrabbit.api.security.user.Authorizable;
+import org.apache.jackrabbit.api.security.user.User;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Joiner;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+
+/**
+ * Fingerprint of the effective group principals of a resource resolver's user,
+ * computed once per resource resolver. Users that are members of the same set
+ * of groups have the same fingerprint and may share cached results, provided
+ * that access control entries are granted to groups rather than to individual
+ * users. Administrators, system users, and the anonymous user are always given
+ * a fingerprint of their own, as are users whose group membership cannot be
+ * read. Group membership is read from the principal manager, so that group
+ * principals without a group authorizable (e.g. dynamic membership of external
+ * identities) are included. It is read with a service user when the
+ * <code>GroupMembershipReader</code> component is active, and otherwise with the
+ * user's own session, which omits groups the user is not permitted to read.
+ */
+public final class PrincipalFingerprint {
+
+	private static final Logger LOG = LoggerFactory.getLogger(PrincipalFingerprint.class);
+
+	private static final String ANONYMOUS = "anonymous";
+
+	private static final Cache<ResourceResolver, String> FINGERPRINTS = CacheBuilder.newBuilder().weakKeys().build();
+
+	private static volatile GroupMembershipReader groupMembershipReader;
+
+	/**
+	 * Get the principal fingerprint for a resource resolver.
+	 *
+	 * @param resourceResolver resource resolver
+	 * @return fingerprint
+	 */
+	public static String get(final ResourceResolver resourceResolver) {
+		checkNotNull(resourceResolver);
+
+		String fingerprint = FINGERPRINTS.getIfPresent(resourceResolver);
+
+		if (fingerprint == null) {
+			fingerprint = compute(resourceResolver);
+
+			FINGERPRINTS.put(resourceResolver, fingerprint);
+		}
+
+		return fingerprint;
+	}
+
+	// internals
+
+	static void setGroupMembershipReader(final GroupMembershipReader reader) {
+		groupMembershipReader = reader;
+
+		FINGERPRINTS.invalidateAll();
+	}
+
+	static String getUserFingerprint(final String userId) {
+		return "user:" + userId;
+	}
+
+	/**
+	 * Compute the fingerprint of a user's group membership.
+	 *
+	 * @param userId  user ID
+	 * @param session session to read the user and its group principals with, or
+	 *                null
+	 * @return fingerprint
+	 */
+	static String compute(final String userId, final Session session) {
+		String fingerprint = getUserFingerprint(userId);
+
+		if (session instanceof JackrabbitSession && userId != null && !ANONYMOUS.equals(userId)) {
+			final JackrabbitSession jackrabbitSession = (JackrabbitSession) session;
+
+			try {
+				final Authorizable authorizable = jackrabbitSession.getUserManager().getAuthorizable(userId);
+
+				if (authorizable instanceof User && !((User) authorizable).isAdmin()
+						&& !((User) authorizable).isSystemUser()) {
+					final SortedSet<String> principalNames = new TreeSet<>();
+					final PrincipalIterator principals = jackrabbitSession.getPrincipalManager()
+							.getGroupMembership(authorizable.getPrincipal());
+
+					while (principals.hasNext()) {
+						principalNames.add(principals.nextPrincipal().getName());
+					}
+
+					fingerprint = "groups:" + Hashing.murmur3_128()
+							.hashString(Joiner.on('\n').join(principalNames), StandardCharsets.UTF_8);
+				}
+			} catch (RepositoryException e) {
+				LOG.error("error reading group membership for user : " + userId, e);
+			}
+		}
+
+		return fingerprint;
+	}
+
+	private static String compute(final ResourceResolver resourceResolver) {
+		final String userId = resourceResolver.getUserID();
+		final GroupMembershipReader reader = groupMembershipReader;
+
+		final String fingerprint;
+
+		if (reader != null && userId != null && !ANONYMOUS.equals(userId)) {
+			fingerprint = reader.getFingerprint(userId);
+		} else {
+			fingerprint = compute(userId, resourceResolver.adaptTo(Session.class));
+		}
+
+		return fingerprint;
+	}
+
+	private PrincipalFingerprint() {
+
+	}
+}
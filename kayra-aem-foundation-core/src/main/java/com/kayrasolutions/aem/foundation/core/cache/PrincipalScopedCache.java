@@ -0,0 +1,157 @@
+package com.kayrasolutions.aem.foundation.core.cache;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.sling.api.resource.ResourceResolver;
+
+import com.google.common.base.Objects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Cache of results that depend on the access rights of the current user.
+ * Entries are keyed by the <code>PrincipalFingerprint</code> of the resource
+ * resolver in addition to the given key, so that users with identical group
+ * membership share entries while users with different access rights never see
+ * each other's results.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class PrincipalScopedCache<K, V> {
+
+	private final Cache<ScopedKey<K>, V> cache;
+
+	/**
+	 * Create a cache.
+	 *
+	 * @param maximumSize   maximum number of entries, across all principal sets
+	 * @param expirySeconds time in seconds after which an entry expires
+	 * @param <K>           key type
+	 * @param <V>           value type
+	 * @return cache
+	 */
+	public static <K, V> PrincipalScopedCache<K, V> create(final long maximumSize, final long expirySeconds) {
+		return new PrincipalScopedCache<>(CacheBuilder.newBuilder().maximumSize(maximumSize)
+				.expireAfterWrite(expirySeconds, TimeUnit.SECONDS).<ScopedKey<K>, V>build());
+	}
+
+	/**
+	 * @param resourceResolver resource resolver of the current user
+	 * @param key              key
+	 * @return cached value for the principal set of the user, or null if not
+	 *         present
+	 */
+	public V getIfPresent(final ResourceResolver resourceResolver, final K key) {
+		return cache.getIfPresent(getScopedKey(resourceResolver, key));
+	}
+
+	/**
+	 * Get the cached value for the principal set of the user, loading and caching
+	 * the value if it is not present.
+	 *
+	 * @param resourceResolver resource resolver of the current user
+	 * @param key              key
+	 * @param loader           function computing the value for the key, using
+	 *                         the access rights of the current user
+	 * @return value
+	 */
+	public V get(final ResourceResolver resourceResolver, final K key,
+			final Function<? super K, ? extends V> loader) {
+		final ScopedKey<K> scopedKey = getScopedKey(resourceResolver, key);
+
+		V value = cache.getIfPresent(scopedKey);
+
+		if (value == null) {
+			value = loader.apply(key);
+
+			if (value != null) {
+				cache.put(scopedKey, value);
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * @param resourceResolver resource resolver of the current user
+	 * @param key              key
+	 * @param value            value computed using the access rights of the
+	 *                         current user
+	 */
+	public void put(final ResourceResolver resourceResolver, final K key, final V value) {
+		cache.put(getScopedKey(resourceResolver, key), value);
+	}
+
+	/**
+	 * Invalidate the entries for a key for all principal sets.
+	 *
+	 * @param key key
+	 */
+	public void invalidate(final K key) {
+		cache.asMap().keySet().removeIf(scopedKey -> scopedKey.key.equals(key));
+	}
+
+	/**
+	 * Invalidate all entries.
+	 */
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * @return approximate number of entries
+	 */
+	public long size() {
+		return cache.size();
+	}
+
+	// internals
+
+	private static <K> ScopedKey<K> getScopedKey(final ResourceResolver resourceResolver, final K key) {
+		checkNotNull(key);
+
+		return new ScopedKey<>(PrincipalFingerprint.get(resourceResolver), key);
+	}
+
+	private PrincipalScopedCache(final Cache<ScopedKey<K>, V> cache) {
+		this.cache = cache;
+	}
+
+	private static final class ScopedKey<K> {
+
+		private final String fingerprint;
+
+		private final K key;
+
+		private ScopedKey(final String fingerprint, final K key) {
+			this.fingerprint = fingerprint;
+			this.key = key;
+		}
+
+		@Override
+		public boolean equals(final Object other) {
+			final boolean equals;
+
+			if (this == other) {
+				equals = true;
+			} else if (other instanceof ScopedKey) {
+				final ScopedKey<?> scopedKey = (ScopedKey<?>) other;
+
+				equals = fingerprint.equals(scopedKey.fingerprint) && key.equals(scopedKey.key);
+			} else {
+				equals = false;
+			}
+
+			return equals;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(fingerprint, key);
+		}
+	}
+}
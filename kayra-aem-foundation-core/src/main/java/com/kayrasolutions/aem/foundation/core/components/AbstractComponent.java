@@ -2,6 +2,7 @@ package com.kayrasolutions.aem.foundation.core.components;
 
 import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
@@ -13,6 +14,7 @@ import org.apache.sling.api.resource.ValueMap;
 
 import com.day.cq.tagging.Tag;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.kayrasolutions.aem.foundation.api.TraversalResult;
 import com.kayrasolutions.aem.foundation.api.link.Link;
 import com.kayrasolutions.aem.foundation.api.link.builders.LinkBuilder;
 import com.kayrasolutions.aem.foundation.api.page.FoundationPage;
@@ -403,4 +405,16 @@ public abstract class AbstractComponent implements ComponentResource {
 	public final List<ComponentResource> findDescendants(final Predicate<ComponentResource> predicate) {
 		return componentResource.findDescendants(predicate);
 	}
+
+	@Override
+	public final TraversalResult<ComponentResource> findDescendants(final Predicate<ComponentResource> predicate,
+			final Instant deadline) {
+		return componentResource.findDescendants(predicate, deadline);
+	}
+
+	@Override
+	public final TraversalResult<ComponentResource> findDescendants(final Predicate<ComponentResource> predicate,
+			final int maxVisits) {
+		return componentResource.findDescendants(predicate, maxVisits);
+	}
 }
\ No newline at end of file
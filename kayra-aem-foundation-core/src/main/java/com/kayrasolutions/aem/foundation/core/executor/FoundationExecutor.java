@@ -0,0 +1,51 @@
+package com.kayrasolutions.aem.foundation.core.executor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.apache.sling.api.resource.ResourceResolver;
+
+/**
+ * Bounded executor for running repository tasks off the request thread. Each
+ * task is supplied with its own service resource resolver, which is opened
+ * before and closed after the task runs. Tasks must therefore not return
+ * resources, pages, or other objects bound to the supplied resolver; return
+ * paths or plain values instead.
+ */
+public interface FoundationExecutor {
+
+	/**
+	 * Submit a task for asynchronous execution using a service resource resolver.
+	 * If the executor is saturated, the returned future is completed
+	 * exceptionally with a <code>RejectedExecutionException</code>. Cancelling
+	 * the returned future removes the task from the queue if it has not started.
+	 * Running tasks are never interrupted, regardless of
+	 * <code>mayInterruptIfRunning</code>; long-running tasks should check a
+	 * cancellation flag instead.
+	 *
+	 * @param task task to execute with a service resource resolver
+	 * @param <T>  result type
+	 * @return future containing the task result
+	 */
+	<T> CompletableFuture<T> submit(Function<ResourceResolver, T> task);
+
+	/**
+	 * @return approximate number of tasks currently running
+	 */
+	int getActiveCount();
+
+	/**
+	 * @return number of tasks waiting in the queue
+	 */
+	int getQueueSize();
+
+	/**
+	 * @return number of tasks that have completed, successfully or otherwise
+	 */
+	long getCompletedTaskCount();
+
+	/**
+	 * @return number of tasks rejected because the executor was saturated
+	 */
+	long getRejectedTaskCount();
+}
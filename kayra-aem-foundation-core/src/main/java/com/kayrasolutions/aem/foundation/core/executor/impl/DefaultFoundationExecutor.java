@@ -0,0 +1,174 @@
+package com.kayrasolutions.aem.foundation.core.executor.impl;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.sling.api.resource.LoginException;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.propertytypes.ServiceDescription;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.kayrasolutions.aem.foundation.core.executor.FoundationExecutor;
+
+@Component(service = FoundationExecutor.class, immediate = true)
+@Designate(ocd = DefaultFoundationExecutor.Configuration.class)
+@ServiceDescription("Kayra Solutions Foundation Executor")
+public final class DefaultFoundationExecutor implements FoundationExecutor {
+
+	@ObjectClassDefinition(name = "Kayra Solutions Foundation Executor")
+	public @interface Configuration {
+
+		@AttributeDefinition(name = "Pool Size", description = "Maximum number of tasks running concurrently.")
+		int poolSize() default 4;
+
+		@AttributeDefinition(name = "Queue Capacity", description = "Maximum number of tasks waiting for a thread "
+				+ "before new tasks are rejected.")
+		int queueCapacity() default 100;
+
+		@AttributeDefinition(name = "Sub-Service Name", description = "Sub-service name used to acquire service "
+				+ "resource resolvers for submitted tasks.")
+		String subServiceName() default "foundation-service";
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(DefaultFoundationExecutor.class);
+
+	private final AtomicLong rejectedTaskCount = new AtomicLong();
+
+	@Reference
+	private ResourceResolverFactory resourceResolverFactory;
+
+	private ThreadPoolExecutor executor;
+
+	private String subServiceName;
+
+	@Override
+	public <T> CompletableFuture<T> submit(final Function<ResourceResolver, T> task) {
+		final CancellableFuture<T> future = new CancellableFuture<>(executor, () -> execute(task));
+
+		try {
+			executor.execute(future.task);
+		} catch (RejectedExecutionException e) {
+			rejectedTaskCount.incrementAndGet();
+
+			LOG.warn("task rejected, active = {}, queued = {}", getActiveCount(), getQueueSize());
+
+			final CompletableFuture<T> rejected = new CompletableFuture<>();
+
+			rejected.completeExceptionally(e);
+
+			return rejected;
+		}
+
+		return future;
+	}
+
+	@Override
+	public int getActiveCount() {
+		return executor.getActiveCount();
+	}
+
+	@Override
+	public int getQueueSize() {
+		return executor.getQueue().size();
+	}
+
+	@Override
+	public long getCompletedTaskCount() {
+		return executor.getCompletedTaskCount();
+	}
+
+	@Override
+	public long getRejectedTaskCount() {
+		return rejectedTaskCount.get();
+	}
+
+	@Activate
+	protected void activate(final Configuration configuration) {
+		subServiceName = configuration.subServiceName();
+
+		executor = new ThreadPoolExecutor(configuration.poolSize(), configuration.poolSize(), 60L, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(configuration.queueCapacity()),
+				new ThreadFactoryBuilder().setNameFormat("foundation-executor-%d").setDaemon(true).build());
+
+		executor.allowCoreThreadTimeOut(true);
+
+		LOG.info("activated executor with pool size = {}, queue capacity = {}", configuration.poolSize(),
+				configuration.queueCapacity());
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		executor.shutdownNow();
+	}
+
+	// internals
+
+	private <T> T execute(final Function<ResourceResolver, T> task) {
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		try (final ResourceResolver resourceResolver = resourceResolverFactory.getServiceResourceResolver(
+				Collections.singletonMap(ResourceResolverFactory.SUBSERVICE, subServiceName))) {
+			return task.apply(resourceResolver);
+		} catch (LoginException e) {
+			LOG.error("error acquiring service resource resolver for sub-service : " + subServiceName, e);
+
+			throw new IllegalStateException(e);
+		} finally {
+			LOG.debug("task completed in {}ms", stopwatch.elapsed(MILLISECONDS));
+		}
+	}
+
+	/**
+	 * Future that cancels the underlying pool task, removing it from the queue if it has not started.
+	 * <code>CompletableFuture.cancel</code> alone only completes the future, leaving a queued task to run. Running
+	 * tasks are never interrupted, since interrupting a repository read can close the underlying file channel.
+	 */
+	private static final class CancellableFuture<T> extends CompletableFuture<T> {
+
+		private final ThreadPoolExecutor executor;
+
+		private final FutureTask<Void> task;
+
+		CancellableFuture(final ThreadPoolExecutor executor, final Supplier<T> supplier) {
+			this.executor = executor;
+
+			task = new FutureTask<>(() -> {
+				try {
+					complete(supplier.get());
+				} catch (RuntimeException | Error e) {
+					completeExceptionally(e);
+				}
+			}, null);
+		}
+
+		@Override
+		public boolean cancel(final boolean mayInterruptIfRunning) {
+			if (task.cancel(false)) {
+				executor.remove(task);
+			}
+
+			return super.cancel(mayInterruptIfRunning);
+		}
+	}
+}
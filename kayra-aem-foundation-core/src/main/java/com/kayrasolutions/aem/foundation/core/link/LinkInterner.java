@@ -0,0 +1,33 @@
+package com.kayrasolutions.aem.foundation.core.link;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.kayrasolutions.aem.foundation.api.link.Link;
+
+/**
+ * Optional pool of canonical link instances for caches holding large link
+ * trees. Structurally equal links are replaced with a single shared instance.
+ * The pool holds weak references, so interned links are released once no cache
+ * refers to them.
+ */
+public final class LinkInterner {
+
+	private static final Interner<Link> INTERNER = Interners.newWeakInterner();
+
+	/**
+	 * Get the canonical instance for a link. To share child instances across
+	 * trees, intern child links before adding them to the parent builder.
+	 *
+	 * @param link link
+	 * @return canonical link equal to the given link
+	 */
+	public static Link intern(final Link link) {
+		return INTERNER.intern(checkNotNull(link));
+	}
+
+	private LinkInterner() {
+
+	}
+}
@@ -2,7 +2,14 @@ package com.kayrasolutions.aem.foundation.core.link.builders.factory;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ValueMap;
 
 import com.day.cq.wcm.api.Page;
 import com.kayrasolutions.aem.foundation.api.link.Link;
@@ -10,6 +17,7 @@ import com.kayrasolutions.aem.foundation.api.link.builders.LinkBuilder;
 import com.kayrasolutions.aem.foundation.api.page.enums.TitleType;
 import com.kayrasolutions.aem.foundation.core.constants.PropertyConstants;
 import com.kayrasolutions.aem.foundation.core.link.builders.impl.DefaultLinkBuilder;
+import com.kayrasolutions.aem.foundation.core.link.impl.RedirectChainCache;
 
 /**
  * Factory for acquiring <code>LinkBuilder</code> instances.
@@ -75,15 +83,46 @@ public final class LinkBuilderFactory {
 	 * @return builder containing the path and title of the given page
 	 */
 	public static LinkBuilder forPage(final Page page, final boolean mapped, final TitleType titleType) {
-		final String title = checkNotNull(page).getProperties().get(titleType.getPropertyName(), page.getTitle());
+		return forPage(page, mapped, titleType, false, null);
+	}
 
-		final String redirect = page.getProperties().get(PropertyConstants.REDIRECT_TARGET, "");
-		final String path = redirect.isEmpty() ? page.getPath() : redirect;
+	/**
+	 * Get a builder instance for a page using the specified title type on the
+	 * returned builder, optionally following redirects across multiple hops.
+	 *
+	 * @param page             page
+	 * @param mapped           if true, link path will be mapped through resource
+	 *                         resolver
+	 * @param titleType        type of page title to set on the builder
+	 * @param resolveRedirects if true, the builder will contain the final target
+	 *                         of the redirect chain rather than the first redirect
+	 *                         target
+	 * @return builder containing the path and title of the given page
+	 */
+	public static LinkBuilder forPage(final Page page, final boolean mapped, final TitleType titleType,
+			final boolean resolveRedirects) {
+		return forPage(page, mapped, titleType, resolveRedirects, null);
+	}
 
-		final Resource resource = page.getContentResource();
+	/**
+	 * Build links for a collection of pages. Page properties are read once per
+	 * page for both the title and redirect target, and each distinct path is only
+	 * mapped once across the batch.
+	 *
+	 * @param pages     pages
+	 * @param mapped    if true, link paths will be mapped through resource
+	 *                  resolver
+	 * @param titleType type of page title to set on the links
+	 * @return links in the iteration order of the given pages
+	 */
+	public static List<Link> forPages(final Collection<? extends Page> pages, final boolean mapped,
+			final TitleType titleType) {
+		checkNotNull(titleType);
 
-		return new DefaultLinkBuilder(path, (mapped && resource != null) ? resource.getResourceResolver() : null)
-				.setTitle(title);
+		final Map<String, String> mappings = new HashMap<>();
+
+		return checkNotNull(pages).stream().map(page -> forPage(page, mapped, titleType, false, mappings).build())
+				.collect(Collectors.toList());
 	}
 
 	/**
@@ -120,6 +159,48 @@ public final class LinkBuilderFactory {
 		return new DefaultLinkBuilder(resource.getPath(), mapped ? resource.getResourceResolver() : null);
 	}
 
+	/**
+	 * Build links for a collection of resources. Each distinct path is only mapped
+	 * once across the batch.
+	 *
+	 * @param resources resources
+	 * @param mapped    if true, link paths will be mapped through resource
+	 *                  resolver
+	 * @return links in the iteration order of the given resources
+	 */
+	public static List<Link> forResources(final Collection<? extends Resource> resources, final boolean mapped) {
+		final Map<String, String> mappings = new HashMap<>();
+
+		return checkNotNull(resources).stream()
+				.map(resource -> new DefaultLinkBuilder(resource.getPath(),
+						mapped ? resource.getResourceResolver() : null, mappings).build())
+				.collect(Collectors.toList());
+	}
+
+	// internals
+
+	private static LinkBuilder forPage(final Page page, final boolean mapped, final TitleType titleType,
+			final boolean resolveRedirects, final Map<String, String> mappings) {
+		final ValueMap properties = checkNotNull(page).getProperties();
+
+		final String title = properties.get(titleType.getPropertyName(), page.getTitle());
+
+		final String path;
+
+		if (resolveRedirects) {
+			path = RedirectChainCache.getTarget(page);
+		} else {
+			final String redirect = properties.get(PropertyConstants.REDIRECT_TARGET, "");
+
+			path = redirect.isEmpty() ? page.getPath() : redirect;
+		}
+
+		final Resource resource = page.getContentResource();
+
+		return new DefaultLinkBuilder(path, (mapped && resource != null) ? resource.getResourceResolver() : null,
+				mappings).setTitle(title);
+	}
+
 	private LinkBuilderFactory() {
 
 	}
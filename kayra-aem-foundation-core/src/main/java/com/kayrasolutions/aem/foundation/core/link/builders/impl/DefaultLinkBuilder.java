@@ -2,9 +2,6 @@ package com.kayrasolutions.aem.foundation.core.link.builders.impl;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -23,23 +20,28 @@ import com.kayrasolutions.aem.foundation.api.link.builders.LinkBuilder;
 import com.kayrasolutions.aem.foundation.api.link.enums.LinkTarget;
 import com.kayrasolutions.aem.foundation.core.constants.PathConstants;
 import com.kayrasolutions.aem.foundation.core.link.impl.DefaultLink;
+import com.kayrasolutions.aem.foundation.core.link.impl.ResourceMappingCache;
 import com.kayrasolutions.aem.foundation.core.utils.PathUtils;
 
 public final class DefaultLinkBuilder implements LinkBuilder {
 
 	private static final Logger LOG = LoggerFactory.getLogger(DefaultLinkBuilder.class);
 
-	private SetMultimap<String, String> parameters = LinkedHashMultimap.create();
+	// collections are allocated on first use since most links have no parameters, properties, or selectors
+
+	private SetMultimap<String, String> parameters;
 
 	private final String path;
 
 	private final ResourceResolver resourceResolver;
 
-	private Map<String, String> properties = new HashMap<>();
+	private final Map<String, String> mappings;
+
+	private Map<String, String> properties;
 
-	private List<String> selectors = new ArrayList<>();
+	private List<String> selectors;
 
-	private List<Link> children = new ArrayList<>();
+	private List<Link> children;
 
 	// initialized with default values
 
@@ -66,48 +68,81 @@ public final class DefaultLinkBuilder implements LinkBuilder {
 	private String title = "";
 
 	public DefaultLinkBuilder(final String path, final ResourceResolver resourceResolver) {
+		this(path, resourceResolver, null);
+	}
+
+	/**
+	 * Create a builder sharing mapped paths with other builders of the same batch,
+	 * so that each distinct path is only mapped once.
+	 *
+	 * @param path             content or external path
+	 * @param resourceResolver resource resolver used for mapping, or null
+	 * @param mappings         mutable map of paths to mapped paths, or null
+	 */
+	public DefaultLinkBuilder(final String path, final ResourceResolver resourceResolver,
+			final Map<String, String> mappings) {
 		this.path = path;
 		this.resourceResolver = resourceResolver;
+		this.mappings = mappings;
 
 		external = PathUtils.isExternal(path);
 	}
 
 	@Override
 	public Link build() {
-		final StringBuilder builder = new StringBuilder().append(buildHost());
+		final StringBuilder builder = new StringBuilder(128);
+
+		appendHost(builder);
 
-		final StringBuilder mappable = new StringBuilder().append(path).append(buildSelectors());
+		final int mappableStart = builder.length();
+
+		builder.append(path);
+
+		appendSelectors(builder);
 
 		final String extension;
 
 		if (external) {
 			extension = "";
 		} else {
-			if (path.contains(PathConstants.SELECTOR)) {
-				extension = path.substring(path.indexOf(PathConstants.SELECTOR) + 1);
+			final int extensionIndex = PathUtils.getExtensionIndex(path);
+
+			if (extensionIndex != -1) {
+				// path already contains selectors and extension
+				extension = path.substring(extensionIndex + 1);
 			} else {
 				extension = this.extension == null ? PathConstants.EXTENSION_HTML : this.extension;
 
 				if (StringUtils.isNotEmpty(extension)) {
-					mappable.append('.').append(extension);
+					builder.append('.').append(extension);
 				}
 			}
 		}
 
 		if (resourceResolver != null) {
-			builder.append(resourceResolver.map(mappable.toString()));
-		} else {
-			builder.append(mappable.toString());
+			final String mappable = builder.substring(mappableStart);
+
+			builder.setLength(mappableStart);
+			builder.append(mappings == null ? map(mappable) : mappings.computeIfAbsent(mappable, this::map));
 		}
 
 		builder.append(suffix);
 
-		final String queryString = buildQueryString();
+		final String queryString;
 
-		builder.append(queryString);
+		if (parameters == null || parameters.isEmpty()) {
+			queryString = "";
+		} else {
+			final int queryStringStart = builder.length();
+
+			appendQueryString(builder);
+
+			queryString = builder.substring(queryStringStart);
+		}
 
 		final String href = builder.toString();
 
+		// unset collections are passed as null, since the link copies them into immutable collections
 		final Link link = new DefaultLink(path, extension, suffix, href, selectors, queryString, external, target,
 				title, properties, active, children);
 
@@ -118,56 +153,56 @@ public final class DefaultLinkBuilder implements LinkBuilder {
 
 	@Override
 	public LinkBuilder addChild(final Link child) {
-		children.add(checkNotNull(child));
+		getChildren().add(checkNotNull(child));
 
 		return this;
 	}
 
 	@Override
 	public LinkBuilder addParameter(final String name, final String value) {
-		parameters.put(checkNotNull(name), checkNotNull(value));
+		getParameters().put(checkNotNull(name), checkNotNull(value));
 
 		return this;
 	}
 
 	@Override
 	public LinkBuilder addParameters(final Map<String, String> parameters) {
-		this.parameters.putAll(Multimaps.forMap(checkNotNull(parameters)));
+		getParameters().putAll(Multimaps.forMap(checkNotNull(parameters)));
 
 		return this;
 	}
 
 	@Override
 	public LinkBuilder addParameters(final SetMultimap<String, String> parameters) {
-		this.parameters.putAll(checkNotNull(parameters));
+		getParameters().putAll(checkNotNull(parameters));
 
 		return this;
 	}
 
 	@Override
 	public LinkBuilder addProperties(final Map<String, String> properties) {
-		this.properties.putAll(checkNotNull(properties));
+		getProperties().putAll(checkNotNull(properties));
 
 		return this;
 	}
 
 	@Override
 	public LinkBuilder addProperty(final String name, final String value) {
-		properties.put(checkNotNull(name), checkNotNull(value));
+		getProperties().put(checkNotNull(name), checkNotNull(value));
 
 		return this;
 	}
 
 	@Override
 	public LinkBuilder addSelector(final String selector) {
-		selectors.add(checkNotNull(selector));
+		getSelectors().add(checkNotNull(selector));
 
 		return this;
 	}
 
 	@Override
 	public LinkBuilder addSelectors(final List<String> selectors) {
-		this.selectors.addAll(checkNotNull(selectors));
+		getSelectors().addAll(checkNotNull(selectors));
 
 		return this;
 	}
@@ -251,9 +286,39 @@ public final class DefaultLinkBuilder implements LinkBuilder {
 
 	// internals
 
-	private String buildHost() {
-		final StringBuilder builder = new StringBuilder();
+	private List<Link> getChildren() {
+		if (children == null) {
+			children = new ArrayList<>();
+		}
+
+		return children;
+	}
+
+	private SetMultimap<String, String> getParameters() {
+		if (parameters == null) {
+			parameters = LinkedHashMultimap.create(4, 1);
+		}
 
+		return parameters;
+	}
+
+	private Map<String, String> getProperties() {
+		if (properties == null) {
+			properties = new HashMap<>(4);
+		}
+
+		return properties;
+	}
+
+	private List<String> getSelectors() {
+		if (selectors == null) {
+			selectors = new ArrayList<>(2);
+		}
+
+		return selectors;
+	}
+
+	private void appendHost(final StringBuilder builder) {
 		if (external) {
 			// ex: www.avionos.com
 			if (scheme != null && !path.startsWith(scheme)) {
@@ -283,46 +348,33 @@ public final class DefaultLinkBuilder implements LinkBuilder {
 				builder.append(port);
 			}
 		}
-
-		return builder.toString();
 	}
 
-	private String buildQueryString() {
-		final StringBuilder builder = new StringBuilder();
-
-		if (!parameters.isEmpty()) {
-			builder.append('?');
-
-			parameters.keySet().forEach(name -> {
-				parameters.get(name).forEach(value -> {
-					try {
-						builder.append(URLEncoder.encode(name, StandardCharsets.UTF_8.name()));
-						builder.append('=');
-						builder.append(URLEncoder.encode(value, StandardCharsets.UTF_8.name()));
-					} catch (UnsupportedEncodingException uee) {
-						LOG.error("invalid encoding for parameter :" + name + "=" + value, uee);
-					}
+	private String map(final String mappable) {
+		return ResourceMappingCache.map(resourceResolver, scheme, host, mappable);
+	}
 
-					builder.append('&');
-				});
-			});
+	private void appendQueryString(final StringBuilder builder) {
+		builder.append('?');
 
-			builder.deleteCharAt(builder.length() - 1);
+		for (final String name : parameters.keySet()) {
+			for (final String value : parameters.get(name)) {
+				QueryStringEncoder.encode(name, builder);
+				builder.append('=');
+				QueryStringEncoder.encode(value, builder);
+				builder.append('&');
+			}
 		}
 
-		return builder.toString();
+		builder.setLength(builder.length() - 1);
 	}
 
-	private String buildSelectors() {
-		final StringBuilder builder = new StringBuilder();
-
-		if (!external) {
-			selectors.forEach(selector -> {
+	private void appendSelectors(final StringBuilder builder) {
+		if (!external && selectors != null) {
+			for (final String selector : selectors) {
 				builder.append('.');
 				builder.append(selector);
-			});
+			}
 		}
-
-		return builder.toString();
 	}
 }
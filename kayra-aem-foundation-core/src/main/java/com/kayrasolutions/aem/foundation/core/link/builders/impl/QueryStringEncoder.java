@@ -0,0 +1,91 @@
+package com.kayrasolutions.aem.foundation.core.link.builders.impl;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encoder for query string parameter names and values, producing the same
+ * output as <code>URLEncoder.encode(value, "UTF-8")</code> without the charset
+ * lookup, checked exception, or intermediate allocations for values that do not
+ * require escaping.
+ */
+final class QueryStringEncoder {
+
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+	private static final boolean[] UNRESERVED = new boolean[128];
+
+	static {
+		for (char c = 'a'; c <= 'z'; c++) {
+			UNRESERVED[c] = true;
+		}
+
+		for (char c = 'A'; c <= 'Z'; c++) {
+			UNRESERVED[c] = true;
+		}
+
+		for (char c = '0'; c <= '9'; c++) {
+			UNRESERVED[c] = true;
+		}
+
+		UNRESERVED['-'] = true;
+		UNRESERVED['_'] = true;
+		UNRESERVED['.'] = true;
+		UNRESERVED['*'] = true;
+	}
+
+	/**
+	 * Append the encoded value to the builder.
+	 *
+	 * @param value   value to encode
+	 * @param builder builder to append to
+	 */
+	static void encode(final String value, final StringBuilder builder) {
+		final int length = value.length();
+
+		int index = 0;
+
+		// fast path for values that need no escaping
+		while (index < length && isUnreserved(value.charAt(index))) {
+			index++;
+		}
+
+		if (index == length) {
+			builder.append(value);
+
+			return;
+		}
+
+		builder.append(value, 0, index);
+
+		while (index < length) {
+			final char c = value.charAt(index);
+
+			if (isUnreserved(c)) {
+				builder.append(c);
+				index++;
+			} else if (c == ' ') {
+				builder.append('+');
+				index++;
+			} else {
+				// encode the run of reserved characters at once so that surrogate pairs are encoded as a unit
+				final int start = index;
+
+				while (index < length && !isUnreserved(value.charAt(index)) && value.charAt(index) != ' ') {
+					index++;
+				}
+
+				for (final byte b : value.substring(start, index).getBytes(StandardCharsets.UTF_8)) {
+					builder.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+				}
+			}
+		}
+	}
+
+	private static boolean isUnreserved(final char c) {
+		return c < 128 && UNRESERVED[c];
+	}
+
+	private QueryStringEncoder() {
+
+	}
+}
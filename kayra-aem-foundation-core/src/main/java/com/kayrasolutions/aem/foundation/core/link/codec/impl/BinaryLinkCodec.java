@@ -0,0 +1,384 @@
+package com.kayrasolutions.aem.foundation.core.link.codec.impl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.propertytypes.ServiceDescription;
+
+import com.google.common.io.ByteStreams;
+import com.kayrasolutions.aem.foundation.api.link.Link;
+import com.kayrasolutions.aem.foundation.api.link.codec.LinkCodec;
+import com.kayrasolutions.aem.foundation.api.link.codec.LinkReader;
+import com.kayrasolutions.aem.foundation.api.link.codec.LinkWriter;
+import com.kayrasolutions.aem.foundation.core.link.impl.DefaultLink;
+
+/**
+ * Binary link codec. A stream consists of a header (magic number and format
+ * version) followed by link records and an end marker. Strings are written as
+ * a variable-length reference: 0 for null, 1 for a new string followed by its
+ * UTF-8 length and bytes, or the index of a previously written string plus 2.
+ * Encoding and decoding fail with an <code>IOException</code> for strings
+ * longer than 1 MiB and for link trees nested more than 64 levels deep, so
+ * that links the decoder would reject are rejected when written.
+ */
+@Component(service = LinkCodec.class)
+@ServiceDescription("Kayra Solutions Binary Link Codec")
+public final class BinaryLinkCodec implements LinkCodec {
+
+	private static final int MAGIC = 0x4B4C4E4B;
+
+	private static final int VERSION = 1;
+
+	private static final int RECORD_END = 0;
+
+	private static final int RECORD_LINK = 1;
+
+	private static final int STRING_NULL = 0;
+
+	private static final int STRING_NEW = 1;
+
+	private static final int STRING_REFERENCE_OFFSET = 2;
+
+	private static final int FLAG_EXTERNAL = 1;
+
+	private static final int FLAG_ACTIVE = 2;
+
+	// bounds preallocation for counts read from untrusted streams
+	private static final int MAX_INITIAL_CAPACITY = 64;
+
+	// limits for untrusted streams, well above anything real links require
+	private static final int MAX_STRING_LENGTH = 1 << 20;
+
+	// strings up to this length are read into an exact-size array, longer strings are read incrementally
+	private static final int MAX_PREALLOCATED_STRING_LENGTH = 8192;
+
+	private static final int MAX_DEPTH = 64;
+
+	@Override
+	public void encode(final Link link, final OutputStream outputStream) throws IOException {
+		checkNotNull(link);
+
+		// the caller's stream is flushed but not closed
+		final Encoder encoder = new Encoder(new FilterOutputStream(checkNotNull(outputStream)) {
+
+			@Override
+			public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+				out.write(bytes, offset, length);
+			}
+
+			@Override
+			public void close() throws IOException {
+				flush();
+			}
+		});
+
+		encoder.write(link);
+		encoder.close();
+	}
+
+	@Override
+	public Link decode(final InputStream inputStream) throws IOException {
+		final Decoder decoder = new Decoder(checkNotNull(inputStream));
+
+		final Link link = decoder.read();
+
+		if (link == null || decoder.read() != null) {
+			throw new IOException("stream does not contain a single link");
+		}
+
+		return link;
+	}
+
+	@Override
+	public LinkWriter newWriter(final OutputStream outputStream) throws IOException {
+		return new Encoder(checkNotNull(outputStream));
+	}
+
+	@Override
+	public LinkReader newReader(final InputStream inputStream) throws IOException {
+		return new Decoder(checkNotNull(inputStream));
+	}
+
+	// internals
+
+	private static final class Encoder implements LinkWriter {
+
+		private final DataOutputStream output;
+
+		private final Map<String, Integer> strings = new HashMap<>();
+
+		private boolean closed;
+
+		private Encoder(final OutputStream outputStream) throws IOException {
+			output = new DataOutputStream(new BufferedOutputStream(outputStream));
+
+			output.writeInt(MAGIC);
+			writeVarInt(VERSION);
+		}
+
+		@Override
+		public void write(final Link link) throws IOException {
+			checkNotNull(link);
+
+			writeVarInt(RECORD_LINK);
+			writeLink(link, 0);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			output.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!closed) {
+				closed = true;
+
+				writeVarInt(RECORD_END);
+
+				output.close();
+			}
+		}
+
+		private void writeLink(final Link link, final int depth) throws IOException {
+			if (depth > MAX_DEPTH) {
+				throw new IOException("link tree exceeds maximum depth : " + MAX_DEPTH);
+			}
+
+			writeString(link.getPath());
+			writeString(link.getExtension());
+			writeString(link.getHref());
+			writeString(link.getSuffix());
+			writeString(link.getQueryString());
+			writeString(link.getTarget());
+			writeString(link.getTitle());
+
+			output.writeByte((link.isExternal() ? FLAG_EXTERNAL : 0) | (link.isActive() ? FLAG_ACTIVE : 0));
+
+			final List<String> selectors = link.getSelectors();
+
+			writeVarInt(selectors.size());
+
+			for (final String selector : selectors) {
+				writeString(selector);
+			}
+
+			final Map<String, String> properties = link.getProperties();
+
+			writeVarInt(properties.size());
+
+			for (final Map.Entry<String, String> property : properties.entrySet()) {
+				writeString(property.getKey());
+				writeString(property.getValue());
+			}
+
+			final List<Link> children = link.getChildren();
+
+			writeVarInt(children.size());
+
+			for (final Link child : children) {
+				writeLink(child, depth + 1);
+			}
+		}
+
+		private void writeString(final String value) throws IOException {
+			if (value == null) {
+				writeVarInt(STRING_NULL);
+			} else {
+				final Integer index = strings.get(value);
+
+				if (index == null) {
+					final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+					if (bytes.length > MAX_STRING_LENGTH) {
+						throw new IOException("string length exceeds maximum : " + bytes.length);
+					}
+
+					strings.put(value, strings.size());
+
+					writeVarInt(STRING_NEW);
+					writeVarInt(bytes.length);
+
+					output.write(bytes);
+				} else {
+					writeVarInt(index + STRING_REFERENCE_OFFSET);
+				}
+			}
+		}
+
+		private void writeVarInt(final int value) throws IOException {
+			int remaining = value;
+
+			while ((remaining & ~0x7F) != 0) {
+				output.writeByte((remaining & 0x7F) | 0x80);
+
+				remaining >>>= 7;
+			}
+
+			output.writeByte(remaining);
+		}
+	}
+
+	private static final class Decoder implements LinkReader {
+
+		private final DataInputStream input;
+
+		private final List<String> strings = new ArrayList<>();
+
+		private boolean ended;
+
+		private Decoder(final InputStream inputStream) throws IOException {
+			input = new DataInputStream(inputStream);
+
+			if (input.readInt() != MAGIC) {
+				throw new IOException("stream is not a link encoding");
+			}
+
+			final int version = readVarInt();
+
+			if (version != VERSION) {
+				throw new IOException("unsupported link encoding version : " + version);
+			}
+		}
+
+		@Override
+		public Link read() throws IOException {
+			Link link = null;
+
+			if (!ended) {
+				final int record = readVarInt();
+
+				if (record == RECORD_LINK) {
+					link = readLink(0);
+				} else if (record == RECORD_END) {
+					ended = true;
+				} else {
+					throw new IOException("invalid record type : " + record);
+				}
+			}
+
+			return link;
+		}
+
+		@Override
+		public void close() throws IOException {
+			input.close();
+		}
+
+		private Link readLink(final int depth) throws IOException {
+			if (depth > MAX_DEPTH) {
+				throw new IOException("link tree exceeds maximum depth : " + MAX_DEPTH);
+			}
+
+			final String path = readString();
+			final String extension = readString();
+			final String href = readString();
+			final String suffix = readString();
+			final String queryString = readString();
+			final String target = readString();
+			final String title = readString();
+
+			final int flags = input.readUnsignedByte();
+
+			final int selectorCount = readVarInt();
+			final List<String> selectors = new ArrayList<>(Math.min(selectorCount, MAX_INITIAL_CAPACITY));
+
+			for (int i = 0; i < selectorCount; i++) {
+				selectors.add(readString());
+			}
+
+			final int propertyCount = readVarInt();
+			final Map<String, String> properties = new LinkedHashMap<>(Math.min(propertyCount, MAX_INITIAL_CAPACITY));
+
+			for (int i = 0; i < propertyCount; i++) {
+				properties.put(readString(), readString());
+			}
+
+			final int childCount = readVarInt();
+			final List<Link> children = new ArrayList<>(Math.min(childCount, MAX_INITIAL_CAPACITY));
+
+			for (int i = 0; i < childCount; i++) {
+				children.add(readLink(depth + 1));
+			}
+
+			return new DefaultLink(path, extension, suffix, href, selectors, queryString,
+					(flags & FLAG_EXTERNAL) != 0, target, title, properties, (flags & FLAG_ACTIVE) != 0, children);
+		}
+
+		private String readString() throws IOException {
+			final int reference = readVarInt();
+
+			final String value;
+
+			if (reference == STRING_NULL) {
+				value = null;
+			} else if (reference == STRING_NEW) {
+				final int length = readVarInt();
+
+				if (length > MAX_STRING_LENGTH) {
+					throw new IOException("string length exceeds maximum : " + length);
+				}
+
+				final byte[] bytes;
+
+				if (length <= MAX_PREALLOCATED_STRING_LENGTH) {
+					bytes = new byte[length];
+
+					ByteStreams.readFully(input, bytes);
+				} else {
+					// read up to the declared length rather than preallocating it, so a truncated stream fails early
+					bytes = ByteStreams.toByteArray(ByteStreams.limit(input, length));
+
+					if (bytes.length != length) {
+						throw new EOFException("string truncated at " + bytes.length + " of " + length + " bytes");
+					}
+				}
+
+				value = new String(bytes, StandardCharsets.UTF_8);
+
+				strings.add(value);
+			} else if (reference - STRING_REFERENCE_OFFSET < strings.size()) {
+				value = strings.get(reference - STRING_REFERENCE_OFFSET);
+			} else {
+				throw new IOException("invalid string reference : " + reference);
+			}
+
+			return value;
+		}
+
+		private int readVarInt() throws IOException {
+			int value = 0;
+
+			for (int shift = 0; shift < 32; shift += 7) {
+				final int b = input.readUnsignedByte();
+
+				value |= (b & 0x7F) << shift;
+
+				if ((b & 0x80) == 0) {
+					if (value < 0) {
+						throw new IOException("invalid length : " + value);
+					}
+
+					return value;
+				}
+			}
+
+			throw new IOException("malformed variable-length integer");
+		}
+	}
+}
@@ -3,42 +3,49 @@ package com.kayrasolutions.aem.foundation.core.link.impl;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-
 import com.google.common.base.Objects;
+import com.google.common.base.Predicates;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.kayrasolutions.aem.foundation.api.link.Link;
 
+/**
+ * Immutable link. Null selector, property, and child collections are treated as
+ * empty, null entries are dropped, and empty collections share a single
+ * instance.
+ */
 public final class DefaultLink implements Link {
 
-	/**
-	 * 
-	 */
-	private static final long serialVersionUID = 1L;
+	private static final long serialVersionUID = 3L;
+
+	private static final byte FLAG_EXTERNAL = 1;
+
+	private static final byte FLAG_ACTIVE = 2;
 
 	private final String path;
 
 	private final String extension;
 
-	private final String suffix;
-
 	private final String href;
 
-	private final List<String> selectors;
+	private final String target;
 
-	private final String queryString;
+	private final String title;
 
-	private final boolean external;
+	private final ImmutableList<String> selectors;
 
-	private final String target;
+	private final ImmutableMap<String, String> properties;
 
-	private final String title;
+	private final ImmutableList<Link> children;
+
+	private final String suffix;
 
-	private final Map<String, String> properties;
+	private final String queryString;
 
-	private final boolean active;
+	private final byte flags;
 
-	private final List<Link> children;
+	private final int hashCode;
 
 	public DefaultLink(final String path, final String extension, final String suffix, final String href,
 			final List<String> selectors, final String queryString, final boolean external, final String target,
@@ -47,14 +54,17 @@ public final class DefaultLink implements Link {
 		this.extension = extension;
 		this.suffix = suffix;
 		this.href = href;
-		this.selectors = selectors;
 		this.queryString = queryString;
-		this.external = external;
+		this.selectors = copyOf(selectors);
 		this.target = target;
 		this.title = title;
-		this.properties = properties;
-		this.active = active;
-		this.children = children;
+		this.properties = copyOf(properties);
+		this.children = copyOf(children);
+
+		flags = (byte) ((external ? FLAG_EXTERNAL : 0) | (active ? FLAG_ACTIVE : 0));
+
+		hashCode = Objects.hashCode(path, extension, href, target, title, this.selectors, this.properties,
+				this.children, suffix, queryString, flags);
 	}
 
 	@Override
@@ -104,7 +114,7 @@ public final class DefaultLink implements Link {
 
 	@Override
 	public boolean isExternal() {
-		return external;
+		return (flags & FLAG_EXTERNAL) != 0;
 	}
 
 	@Override
@@ -114,17 +124,38 @@ public final class DefaultLink implements Link {
 
 	@Override
 	public boolean isActive() {
-		return active;
+		return (flags & FLAG_ACTIVE) != 0;
 	}
 
 	@Override
 	public int hashCode() {
-		return HashCodeBuilder.reflectionHashCode(this);
+		return hashCode;
 	}
 
 	@Override
 	public boolean equals(final Object obj) {
-		return EqualsBuilder.reflectionEquals(this, obj);
+		if (this == obj) {
+			return true;
+		}
+
+		if (!(obj instanceof DefaultLink)) {
+			return false;
+		}
+
+		final DefaultLink other = (DefaultLink) obj;
+
+		return hashCode == other.hashCode
+				&& flags == other.flags
+				&& Objects.equal(href, other.href)
+				&& Objects.equal(suffix, other.suffix)
+				&& Objects.equal(queryString, other.queryString)
+				&& Objects.equal(path, other.path)
+				&& Objects.equal(extension, other.extension)
+				&& Objects.equal(target, other.target)
+				&& Objects.equal(title, other.title)
+				&& selectors.equals(other.selectors)
+				&& properties.equals(other.properties)
+				&& children.equals(other.children);
 	}
 
 	@Override
@@ -138,9 +169,30 @@ public final class DefaultLink implements Link {
 				.add("href", href)
 				.add("title", title)
 				.add("target", target)
-				.add("isExternal", external)
-				.add("isActive", active)
+				.add("isExternal", isExternal())
+				.add("isActive", isActive())
 				.add("children", children.size())
 				.add("properties", properties).toString();
 	}
+
+	// internals
+
+	private static <T> ImmutableList<T> copyOf(final List<T> list) {
+		return list == null ? ImmutableList.<T>of()
+				: ImmutableList.copyOf(FluentIterable.from(list).filter(Predicates.notNull()));
+	}
+
+	private static ImmutableMap<String, String> copyOf(final Map<String, String> map) {
+		final ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+
+		if (map != null) {
+			for (final Map.Entry<String, String> entry : map.entrySet()) {
+				if (entry.getKey() != null && entry.getValue() != null) {
+					builder.put(entry);
+				}
+			}
+		}
+
+		return builder.build();
+	}
 }
@@ -0,0 +1,162 @@
+package com.kayrasolutions.aem.foundation.core.link.impl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.apache.sling.api.resource.Resource.RESOURCE_TYPE_NON_EXISTING;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+
+import com.google.common.base.Objects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Classification of a link path using a single <code>resolve()</code> call,
+ * memoized per resource resolver. Memoization is only enabled while the
+ * <code>PathClassificationInvalidator</code> component is active, which discards
+ * memoized classifications whenever the resource resolver mappings change.
+ * Classifications are also discarded when the resource resolver is garbage
+ * collected. Resources created or removed through a long-lived resource
+ * resolver after a path has been classified are not reflected.
+ */
+public final class PathClassification {
+
+	public enum Type {
+
+		/**
+		 * Path of an existing resource.
+		 */
+		RESOURCE,
+
+		/**
+		 * Path resolved to a different resource, e.g. through an alias, vanity path,
+		 * or selectors and extension.
+		 */
+		MAPPED,
+
+		/**
+		 * Path that does not resolve to a resource.
+		 */
+		EXTERNAL
+	}
+
+	private static final int MAX_PATHS_PER_RESOLVER = 1000;
+
+	private static final Cache<ResourceResolver, Memo> MEMOS = CacheBuilder.newBuilder().weakKeys().build();
+
+	private static final AtomicLong GENERATION = new AtomicLong();
+
+	private static volatile boolean enabled;
+
+	/**
+	 * Classify a path, returning the memoized classification for the resource
+	 * resolver if available.
+	 *
+	 * @param resourceResolver resource resolver
+	 * @param path             path
+	 * @return classification
+	 */
+	public static PathClassification classify(final ResourceResolver resourceResolver, final String path) {
+		checkNotNull(resourceResolver);
+		checkNotNull(path);
+
+		final PathClassification classification;
+
+		if (enabled) {
+			final long generation = GENERATION.get();
+
+			Memo memo = MEMOS.getIfPresent(resourceResolver);
+
+			if (memo == null || memo.generation != generation
+					|| memo.classifications.size() >= MAX_PATHS_PER_RESOLVER) {
+				memo = new Memo(generation);
+
+				MEMOS.put(resourceResolver, memo);
+			}
+
+			classification = memo.classifications.computeIfAbsent(path, key -> resolve(resourceResolver, key));
+		} else {
+			classification = resolve(resourceResolver, path);
+		}
+
+		return classification;
+	}
+
+	static void enable() {
+		invalidate();
+
+		enabled = true;
+	}
+
+	static void disable() {
+		enabled = false;
+
+		invalidate();
+	}
+
+	static void invalidate() {
+		// memos created before the increment are discarded on their next use, even if put after the invalidation
+		GENERATION.incrementAndGet();
+
+		MEMOS.invalidateAll();
+	}
+
+	private static PathClassification resolve(final ResourceResolver resourceResolver, final String path) {
+		final Resource resource = resourceResolver.resolve(path);
+
+		final Type type;
+
+		if (RESOURCE_TYPE_NON_EXISTING.equals(resource.getResourceType())) {
+			type = Type.EXTERNAL;
+		} else if (resource.getPath().equals(path)) {
+			type = Type.RESOURCE;
+		} else {
+			type = Type.MAPPED;
+		}
+
+		return new PathClassification(type, resource.getPath());
+	}
+
+	private static final class Memo {
+
+		private final long generation;
+
+		private final Map<String, PathClassification> classifications = new ConcurrentHashMap<>();
+
+		private Memo(final long generation) {
+			this.generation = generation;
+		}
+	}
+
+	private final Type type;
+
+	private final String resolvedPath;
+
+	private PathClassification(final Type type, final String resolvedPath) {
+		this.type = type;
+		this.resolvedPath = resolvedPath;
+	}
+
+	/**
+	 * @return path type
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * @return path of the resolved resource
+	 */
+	public String getResolvedPath() {
+		return resolvedPath;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this).add("type", type).add("resolvedPath", resolvedPath).toString();
+	}
+}
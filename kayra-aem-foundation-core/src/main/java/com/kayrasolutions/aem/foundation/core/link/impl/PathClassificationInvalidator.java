@@ -0,0 +1,64 @@
+package com.kayrasolutions.aem.foundation.core.link.impl;
+
+import org.apache.sling.api.SlingConstants;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.propertytypes.ServiceDescription;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventConstants;
+import org.osgi.service.event.EventHandler;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Enables memoized link path classification and discards memoized
+ * classifications whenever the resource resolver mappings change, since a
+ * mapping change can turn an external path into a mapped one and vice versa.
+ */
+@Component(service = EventHandler.class, immediate = true,
+		property = EventConstants.EVENT_TOPIC + "=" + SlingConstants.TOPIC_RESOURCE_RESOLVER_MAPPING_CHANGED)
+@Designate(ocd = PathClassificationInvalidator.Configuration.class)
+@ServiceDescription("Kayra Solutions Path Classification Cache")
+public final class PathClassificationInvalidator implements EventHandler {
+
+	@ObjectClassDefinition(name = "Kayra Solutions Path Classification Cache")
+	public @interface Configuration {
+
+		@AttributeDefinition(name = "Enabled", description = "If true, link path classifications are memoized per "
+				+ "resource resolver.")
+		boolean enabled() default true;
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(PathClassificationInvalidator.class);
+
+	@Override
+	public void handleEvent(final Event event) {
+		LOG.debug("resource resolver mappings changed, invalidating path classifications");
+
+		PathClassification.invalidate();
+	}
+
+	@Activate
+	@Modified
+	protected void activate(final Configuration configuration) {
+		if (configuration.enabled()) {
+			PathClassification.enable();
+
+			LOG.info("enabled path classification cache");
+		} else {
+			PathClassification.disable();
+
+			LOG.info("disabled path classification cache");
+		}
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		PathClassification.disable();
+	}
+}
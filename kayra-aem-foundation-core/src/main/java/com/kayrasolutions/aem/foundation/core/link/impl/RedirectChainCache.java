@@ -0,0 +1,220 @@
+package com.kayrasolutions.aem.foundation.core.link.impl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.sling.api.resource.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.day.cq.wcm.api.Page;
+import com.day.cq.wcm.api.PageManager;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.kayrasolutions.aem.foundation.core.constants.PropertyConstants;
+import com.kayrasolutions.aem.foundation.core.utils.PathUtils;
+
+/**
+ * Resolves the final target of a page redirect chain, following up to a
+ * maximum number of redirect hops. Resolved chains are cached per user and page
+ * while the <code>RedirectChainCacheInvalidator</code> component is active, and
+ * are invalidated when any page in the chain changes.
+ */
+public final class RedirectChainCache {
+
+	private static final Logger LOG = LoggerFactory.getLogger(RedirectChainCache.class);
+
+	private static final int DEFAULT_MAX_HOPS = 5;
+
+	private static final AtomicLong GENERATION = new AtomicLong();
+
+	// page path to the keys of cached chains containing that page
+	private static final Map<String, Set<String>> CHAIN_KEYS = new ConcurrentHashMap<>();
+
+	private static volatile Cache<String, RedirectChain> cache;
+
+	private static volatile int maxHops = DEFAULT_MAX_HOPS;
+
+	/**
+	 * Get the final redirect target for a page. If the chain contains a cycle or
+	 * exceeds the maximum number of hops, the first redirect target is returned.
+	 *
+	 * @param page page
+	 * @return final redirect target path, or the page path if the page does not
+	 *         redirect
+	 */
+	public static String getTarget(final Page page) {
+		checkNotNull(page);
+
+		final Cache<String, RedirectChain> chains = cache;
+
+		final RedirectChain chain;
+
+		if (chains == null) {
+			chain = resolve(page);
+		} else {
+			// partitioned by user since intermediate pages may not be readable by all users
+			final String key = getUserId(page) + "|" + page.getPath();
+
+			final RedirectChain cachedChain = chains.getIfPresent(key);
+
+			if (cachedChain == null) {
+				final long generation = GENERATION.get();
+
+				chain = resolve(page);
+
+				// keys are registered after the put, since replacing an entry unregisters the replaced chain
+				chains.put(key, chain);
+				chain.paths.forEach(path -> register(path, key));
+
+				// discard the entry if pages were invalidated while the chain was resolved or registered
+				if (generation != GENERATION.get()) {
+					chains.invalidate(key);
+				}
+			} else {
+				chain = cachedChain;
+			}
+		}
+
+		return chain.target;
+	}
+
+	static void enable(final long maximumSize, final int maxHops) {
+		GENERATION.incrementAndGet();
+
+		RedirectChainCache.maxHops = maxHops;
+
+		cache = CacheBuilder.newBuilder().maximumSize(maximumSize)
+				.removalListener((RemovalListener<String, RedirectChain>) notification -> notification.getValue().paths
+						.forEach(path -> unregister(path, notification.getKey())))
+				.build();
+
+		CHAIN_KEYS.clear();
+	}
+
+	static void disable() {
+		GENERATION.incrementAndGet();
+
+		cache = null;
+		maxHops = DEFAULT_MAX_HOPS;
+
+		CHAIN_KEYS.clear();
+	}
+
+	static void invalidate(final String pagePath) {
+		GENERATION.incrementAndGet();
+
+		final Cache<String, RedirectChain> chains = cache;
+		final Set<String> keys = CHAIN_KEYS.remove(pagePath);
+
+		if (chains != null && keys != null) {
+			LOG.debug("invalidating {} redirect chain(s) for page : {}", keys.size(), pagePath);
+
+			chains.invalidateAll(keys);
+		}
+	}
+
+	static void invalidateDescendants(final String pagePath) {
+		final String prefix = pagePath + "/";
+
+		CHAIN_KEYS.keySet().stream().filter(path -> path.startsWith(prefix)).forEach(RedirectChainCache::invalidate);
+	}
+
+	// internals
+
+	private static final class RedirectChain {
+
+		private final String target;
+
+		// paths of all pages visited while resolving the chain, including the target
+		private final List<String> paths;
+
+		private RedirectChain(final String target, final List<String> paths) {
+			this.target = target;
+			this.paths = paths;
+		}
+	}
+
+	private static void register(final String path, final String key) {
+		// atomic with unregister, so a key is never added to a set that was just dropped
+		CHAIN_KEYS.compute(path, (p, keys) -> {
+			final Set<String> chainKeys = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+
+			chainKeys.add(key);
+
+			return chainKeys;
+		});
+	}
+
+	private static void unregister(final String path, final String key) {
+		// drop the path entirely once no cached chain contains it
+		CHAIN_KEYS.computeIfPresent(path, (p, keys) -> {
+			keys.remove(key);
+
+			return keys.isEmpty() ? null : keys;
+		});
+	}
+
+	private static RedirectChain resolve(final Page page) {
+		final Set<String> paths = new LinkedHashSet<>();
+
+		paths.add(page.getPath());
+
+		final String firstTarget = getRedirectTarget(page);
+
+		String target = page.getPath();
+		String nextTarget = firstTarget;
+		Page current = page;
+
+		while (!nextTarget.isEmpty()) {
+			target = nextTarget;
+
+			if (PathUtils.isExternal(target)) {
+				break;
+			}
+
+			if (!paths.add(target) || paths.size() > maxHops + 1) {
+				LOG.warn("redirect cycle or too many redirects for page : {}, chain : {}", page.getPath(), paths);
+
+				target = firstTarget;
+				break;
+			}
+
+			final PageManager pageManager = current.getPageManager();
+
+			current = pageManager == null ? null : pageManager.getPage(target);
+
+			if (current == null) {
+				// target is not a page, e.g. an asset or a missing page
+				break;
+			}
+
+			nextTarget = getRedirectTarget(current);
+		}
+
+		return new RedirectChain(target, Collections.unmodifiableList(new ArrayList<>(paths)));
+	}
+
+	private static String getRedirectTarget(final Page page) {
+		return page.getProperties().get(PropertyConstants.REDIRECT_TARGET, "");
+	}
+
+	private static String getUserId(final Page page) {
+		final Resource resource = page.adaptTo(Resource.class);
+
+		return resource == null ? "" : resource.getResourceResolver().getUserID();
+	}
+
+	private RedirectChainCache() {
+
+	}
+}
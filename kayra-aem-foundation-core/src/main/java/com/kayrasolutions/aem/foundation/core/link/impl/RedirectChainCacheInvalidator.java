@@ -0,0 +1,84 @@
+package com.kayrasolutions.aem.foundation.core.link.impl;
+
+import java.util.List;
+
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChangeListener;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.propertytypes.ServiceDescription;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.kayrasolutions.aem.foundation.core.constants.PathConstants;
+import com.kayrasolutions.aem.foundation.core.utils.PathUtils;
+
+/**
+ * Enables the redirect chain cache and invalidates cached chains when a page in
+ * the chain is added, changed, or removed.
+ */
+@Component(service = ResourceChangeListener.class, immediate = true, property = {
+		ResourceChangeListener.PATHS + "=" + PathConstants.PATH_CONTENT,
+		ResourceChangeListener.CHANGES + "=ADDED",
+		ResourceChangeListener.CHANGES + "=CHANGED",
+		ResourceChangeListener.CHANGES + "=REMOVED"
+})
+@Designate(ocd = RedirectChainCacheInvalidator.Configuration.class)
+@ServiceDescription("Kayra Solutions Redirect Chain Cache")
+public final class RedirectChainCacheInvalidator implements ResourceChangeListener {
+
+	@ObjectClassDefinition(name = "Kayra Solutions Redirect Chain Cache")
+	public @interface Configuration {
+
+		@AttributeDefinition(name = "Enabled", description = "If true, resolved redirect chains are cached.")
+		boolean enabled() default true;
+
+		@AttributeDefinition(name = "Maximum Size", description = "Maximum number of cached redirect chains.")
+		long maximumSize() default 10000;
+
+		@AttributeDefinition(name = "Max Hops", description = "Maximum number of redirects followed when resolving "
+				+ "a redirect chain.")
+		int maxHops() default 5;
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(RedirectChainCacheInvalidator.class);
+
+	@Override
+	public void onChange(final List<ResourceChange> changes) {
+		for (final ResourceChange change : changes) {
+			final String pagePath = PathUtils.getPagePath(change.getPath());
+
+			RedirectChainCache.invalidate(pagePath);
+
+			if (change.getType() == ResourceChange.ChangeType.REMOVED) {
+				// removal of an ancestor does not produce events for descendant pages
+				RedirectChainCache.invalidateDescendants(pagePath);
+			}
+		}
+	}
+
+	@Activate
+	@Modified
+	protected void activate(final Configuration configuration) {
+		if (configuration.enabled()) {
+			RedirectChainCache.enable(configuration.maximumSize(), configuration.maxHops());
+
+			LOG.info("enabled redirect chain cache with maximum size = {}, max hops = {}", configuration.maximumSize(),
+					configuration.maxHops());
+		} else {
+			RedirectChainCache.disable();
+
+			LOG.info("disabled redirect chain cache");
+		}
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		RedirectChainCache.disable();
+	}
+}
@@ -0,0 +1,99 @@
+package com.kayrasolutions.aem.foundation.core.link.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.sling.api.resource.ResourceResolver;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Shared cache of resource resolver mappings, keyed by scheme, host, and the
+ * path to be mapped (including selectors and extension). The cache is only
+ * enabled while the <code>ResourceMappingCacheInvalidator</code> component is
+ * active, since mappings must be invalidated when <code>/etc/map</code> or
+ * vanity paths change.
+ */
+public final class ResourceMappingCache {
+
+	private static final AtomicLong GENERATION = new AtomicLong();
+
+	private static volatile Cache<String, String> cache;
+
+	/**
+	 * Map a path through the resource resolver, returning the cached mapping if
+	 * available.
+	 *
+	 * @param resourceResolver resource resolver
+	 * @param scheme           scheme of the link, or null
+	 * @param host             host of the link, or null
+	 * @param path             path to map
+	 * @return mapped path
+	 */
+	public static String map(final ResourceResolver resourceResolver, final String scheme, final String host,
+			final String path) {
+		final Cache<String, String> mappings = cache;
+
+		final String mappedPath;
+
+		if (mappings == null) {
+			mappedPath = resourceResolver.map(path);
+		} else {
+			final String key = new StringBuilder().append(scheme).append('|').append(host).append('|').append(path)
+					.toString();
+
+			final String cachedPath = mappings.getIfPresent(key);
+
+			if (cachedPath == null) {
+				final long generation = GENERATION.get();
+
+				mappedPath = resourceResolver.map(path);
+
+				// skip caching if the mappings were invalidated while this path was mapped
+				if (generation == GENERATION.get()) {
+					mappings.put(key, mappedPath);
+				}
+			} else {
+				mappedPath = cachedPath;
+			}
+		}
+
+		return mappedPath;
+	}
+
+	/**
+	 * @return current mapping generation, incremented each time the mappings are
+	 *         invalidated
+	 */
+	public static long getGeneration() {
+		return GENERATION.get();
+	}
+
+	static void enable(final long maximumSize, final long expirySeconds) {
+		GENERATION.incrementAndGet();
+
+		cache = CacheBuilder.newBuilder().maximumSize(maximumSize).expireAfterWrite(expirySeconds, TimeUnit.SECONDS)
+				.build();
+	}
+
+	static void disable() {
+		GENERATION.incrementAndGet();
+
+		cache = null;
+	}
+
+	static void invalidate() {
+		GENERATION.incrementAndGet();
+
+		final Cache<String, String> mappings = cache;
+
+		if (mappings != null) {
+			mappings.invalidateAll();
+		}
+	}
+
+	private ResourceMappingCache() {
+
+	}
+}
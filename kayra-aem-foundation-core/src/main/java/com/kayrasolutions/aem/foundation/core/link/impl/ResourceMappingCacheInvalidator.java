@@ -0,0 +1,71 @@
+package com.kayrasolutions.aem.foundation.core.link.impl;
+
+import org.apache.sling.api.SlingConstants;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.propertytypes.ServiceDescription;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventConstants;
+import org.osgi.service.event.EventHandler;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Enables the shared resource mapping cache and invalidates it whenever the
+ * resource resolver mappings change. Sling fires the mapping changed event for
+ * changes to <code>/etc/map</code> as well as vanity paths and aliases.
+ */
+@Component(service = EventHandler.class, immediate = true,
+		property = EventConstants.EVENT_TOPIC + "=" + SlingConstants.TOPIC_RESOURCE_RESOLVER_MAPPING_CHANGED)
+@Designate(ocd = ResourceMappingCacheInvalidator.Configuration.class)
+@ServiceDescription("Kayra Solutions Resource Mapping Cache")
+public final class ResourceMappingCacheInvalidator implements EventHandler {
+
+	@ObjectClassDefinition(name = "Kayra Solutions Resource Mapping Cache")
+	public @interface Configuration {
+
+		@AttributeDefinition(name = "Enabled", description = "If true, mapped link paths are cached.")
+		boolean enabled() default true;
+
+		@AttributeDefinition(name = "Maximum Size", description = "Maximum number of cached mappings.")
+		long maximumSize() default 10000;
+
+		@AttributeDefinition(name = "Expiry", description = "Time in seconds after which a cached mapping expires, "
+				+ "regardless of mapping changes.")
+		long expirySeconds() default 3600;
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(ResourceMappingCacheInvalidator.class);
+
+	@Override
+	public void handleEvent(final Event event) {
+		LOG.debug("resource resolver mappings changed, invalidating mapping cache");
+
+		ResourceMappingCache.invalidate();
+	}
+
+	@Activate
+	@Modified
+	protected void activate(final Configuration configuration) {
+		if (configuration.enabled()) {
+			ResourceMappingCache.enable(configuration.maximumSize(), configuration.expirySeconds());
+
+			LOG.info("enabled mapping cache with maximum size = {}, expiry = {}s", configuration.maximumSize(),
+					configuration.expirySeconds());
+		} else {
+			ResourceMappingCache.disable();
+
+			LOG.info("disabled mapping cache");
+		}
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		ResourceMappingCache.disable();
+	}
+}
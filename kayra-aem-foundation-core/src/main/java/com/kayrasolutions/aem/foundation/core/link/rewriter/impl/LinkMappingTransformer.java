@@ -0,0 +1,273 @@
+package com.kayrasolutions.aem.foundation.core.link.rewriter.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.rewriter.ProcessingComponentConfiguration;
+import org.apache.sling.rewriter.ProcessingContext;
+import org.apache.sling.rewriter.Transformer;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import com.kayrasolutions.aem.foundation.core.constants.PathConstants;
+import com.kayrasolutions.aem.foundation.core.link.impl.ResourceMappingCache;
+import com.kayrasolutions.aem.foundation.core.utils.PathUtils;
+
+/**
+ * Maps internal links in batches. Events are passed through directly until an
+ * element containing an internal link is encountered; from then on, events are
+ * buffered until the batch is full, the event buffer limit is reached, or the
+ * document ends. The distinct paths of the batch are then mapped once each and
+ * the buffered events are written with the mapped attribute values.
+ */
+final class LinkMappingTransformer implements Transformer {
+
+	@FunctionalInterface
+	private interface Event {
+
+		void replay(ContentHandler contentHandler) throws SAXException;
+	}
+
+	private static final class PendingLink {
+
+		private final AttributesImpl attributes;
+
+		private final int index;
+
+		private final String path;
+
+		// query string and/or fragment following the path
+		private final String remainder;
+
+		private PendingLink(final AttributesImpl attributes, final int index, final String path,
+				final String remainder) {
+			this.attributes = attributes;
+			this.index = index;
+			this.path = path;
+			this.remainder = remainder;
+		}
+	}
+
+	private final Map<String, Set<String>> linkAttributes;
+
+	private final boolean appendExtension;
+
+	private final int batchSize;
+
+	private final int maxBufferedEvents;
+
+	private final List<Event> events = new ArrayList<>();
+
+	private final List<PendingLink> pendingLinks = new ArrayList<>();
+
+	private ContentHandler contentHandler;
+
+	private ResourceResolver resourceResolver;
+
+	LinkMappingTransformer(final Map<String, Set<String>> linkAttributes, final boolean appendExtension,
+			final int batchSize, final int maxBufferedEvents) {
+		this.linkAttributes = linkAttributes;
+		this.appendExtension = appendExtension;
+		this.batchSize = batchSize;
+		this.maxBufferedEvents = maxBufferedEvents;
+	}
+
+	@Override
+	public void init(final ProcessingContext context, final ProcessingComponentConfiguration configuration)
+			throws IOException {
+		resourceResolver = context.getRequest().getResourceResolver();
+	}
+
+	@Override
+	public void setContentHandler(final ContentHandler contentHandler) {
+		this.contentHandler = contentHandler;
+	}
+
+	@Override
+	public void dispose() {
+		events.clear();
+		pendingLinks.clear();
+	}
+
+	@Override
+	public void setDocumentLocator(final Locator locator) {
+		contentHandler.setDocumentLocator(locator);
+	}
+
+	@Override
+	public void startDocument() throws SAXException {
+		contentHandler.startDocument();
+	}
+
+	@Override
+	public void endDocument() throws SAXException {
+		flush();
+
+		contentHandler.endDocument();
+	}
+
+	@Override
+	public void startPrefixMapping(final String prefix, final String uri) throws SAXException {
+		handle(handler -> handler.startPrefixMapping(prefix, uri));
+	}
+
+	@Override
+	public void endPrefixMapping(final String prefix) throws SAXException {
+		handle(handler -> handler.endPrefixMapping(prefix));
+	}
+
+	@Override
+	public void startElement(final String uri, final String localName, final String qName,
+			final Attributes attributes) throws SAXException {
+		final Set<String> attributeNames = linkAttributes.get(localName.toLowerCase(Locale.ENGLISH));
+
+		AttributesImpl mappableAttributes = null;
+
+		if (attributeNames != null) {
+			for (int i = 0; i < attributes.getLength(); i++) {
+				final String value = attributes.getValue(i);
+
+				if (attributeNames.contains(attributes.getLocalName(i).toLowerCase(Locale.ENGLISH))
+						&& isInternal(value)) {
+					if (mappableAttributes == null) {
+						mappableAttributes = new AttributesImpl(attributes);
+					}
+
+					final int remainderStart = getRemainderStart(value);
+
+					pendingLinks.add(new PendingLink(mappableAttributes, i, value.substring(0, remainderStart),
+							value.substring(remainderStart)));
+				}
+			}
+		}
+
+		if (mappableAttributes == null) {
+			// attributes are only valid for the duration of this call, so copy if buffered
+			final Attributes eventAttributes = events.isEmpty() ? attributes : new AttributesImpl(attributes);
+
+			handle(handler -> handler.startElement(uri, localName, qName, eventAttributes));
+		} else {
+			final Attributes eventAttributes = mappableAttributes;
+
+			events.add(handler -> handler.startElement(uri, localName, qName, eventAttributes));
+
+			if (pendingLinks.size() >= batchSize) {
+				flush();
+			}
+		}
+	}
+
+	@Override
+	public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+		handle(handler -> handler.endElement(uri, localName, qName));
+	}
+
+	@Override
+	public void characters(final char[] ch, final int start, final int length) throws SAXException {
+		if (events.isEmpty()) {
+			contentHandler.characters(ch, start, length);
+		} else {
+			final char[] copy = new char[length];
+
+			System.arraycopy(ch, start, copy, 0, length);
+
+			handle(handler -> handler.characters(copy, 0, length));
+		}
+	}
+
+	@Override
+	public void ignorableWhitespace(final char[] ch, final int start, final int length) throws SAXException {
+		if (events.isEmpty()) {
+			contentHandler.ignorableWhitespace(ch, start, length);
+		} else {
+			final char[] copy = new char[length];
+
+			System.arraycopy(ch, start, copy, 0, length);
+
+			handle(handler -> handler.ignorableWhitespace(copy, 0, length));
+		}
+	}
+
+	@Override
+	public void processingInstruction(final String target, final String data) throws SAXException {
+		handle(handler -> handler.processingInstruction(target, data));
+	}
+
+	@Override
+	public void skippedEntity(final String name) throws SAXException {
+		handle(handler -> handler.skippedEntity(name));
+	}
+
+	// internals
+
+	private void handle(final Event event) throws SAXException {
+		if (events.isEmpty()) {
+			event.replay(contentHandler);
+		} else {
+			events.add(event);
+
+			if (events.size() >= maxBufferedEvents) {
+				flush();
+			}
+		}
+	}
+
+	private void flush() throws SAXException {
+		if (!pendingLinks.isEmpty()) {
+			final Map<String, String> mappedPaths = new HashMap<>();
+
+			for (final PendingLink pendingLink : pendingLinks) {
+				final String mappedPath = mappedPaths.computeIfAbsent(pendingLink.path, this::map);
+
+				pendingLink.attributes.setValue(pendingLink.index, mappedPath + pendingLink.remainder);
+			}
+
+			pendingLinks.clear();
+		}
+
+		for (final Event event : events) {
+			event.replay(contentHandler);
+		}
+
+		events.clear();
+	}
+
+	private String map(final String path) {
+		final StringBuilder mappable = new StringBuilder(path);
+
+		if (appendExtension) {
+			// same default extension as the link builder for content pages
+			if (PathUtils.getExtensionIndex(path) == -1 && PathUtils.isContent(path)
+					&& !path.startsWith(PathConstants.PATH_CONTENT_DAM + "/")) {
+				mappable.append('.').append(PathConstants.EXTENSION_HTML);
+			}
+		}
+
+		return ResourceMappingCache.map(resourceResolver, null, null, mappable.toString());
+	}
+
+	private static boolean isInternal(final String value) {
+		return value != null && value.length() > 1 && value.charAt(0) == '/' && value.charAt(1) != '/';
+	}
+
+	private static int getRemainderStart(final String value) {
+		for (int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+
+			if (c == '?' || c == '#') {
+				return i;
+			}
+		}
+
+		return value.length();
+	}
+}
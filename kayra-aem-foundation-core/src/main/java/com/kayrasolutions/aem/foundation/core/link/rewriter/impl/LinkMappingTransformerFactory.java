@@ -0,0 +1,93 @@
+package com.kayrasolutions.aem.foundation.core.link.rewriter.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.sling.rewriter.Transformer;
+import org.apache.sling.rewriter.TransformerFactory;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.propertytypes.ServiceDescription;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rewriter transformer factory for the <code>foundation-link-mapper</code>
+ * pipeline type. The transformer maps internal link attributes through the
+ * shared resource mapping cache, buffering SAX events only while a batch of
+ * links is pending so that the document is never buffered as a whole.
+ */
+@Component(service = TransformerFactory.class, property = "pipeline.type="
+		+ LinkMappingTransformerFactory.PIPELINE_TYPE)
+@Designate(ocd = LinkMappingTransformerFactory.Configuration.class)
+@ServiceDescription("Kayra Solutions Link Mapping Transformer Factory")
+public final class LinkMappingTransformerFactory implements TransformerFactory {
+
+	@ObjectClassDefinition(name = "Kayra Solutions Link Mapping Transformer Factory")
+	public @interface Configuration {
+
+		@AttributeDefinition(name = "Link Attributes", description = "Element and attribute names containing links, "
+				+ "in the form element:attribute.")
+		String[] linkAttributes() default { "a:href", "area:href", "form:action", "iframe:src", "img:src",
+				"link:href", "script:src" };
+
+		@AttributeDefinition(name = "Append Extension", description = "If true, the HTML extension is appended to "
+				+ "content page links without an extension.")
+		boolean appendExtension() default true;
+
+		@AttributeDefinition(name = "Batch Size", description = "Number of links collected before the pending batch "
+				+ "is mapped and the buffered events are written.")
+		int batchSize() default 100;
+
+		@AttributeDefinition(name = "Max Buffered Events", description = "Maximum number of SAX events buffered "
+				+ "while a batch is pending.")
+		int maxBufferedEvents() default 2000;
+	}
+
+	static final String PIPELINE_TYPE = "foundation-link-mapper";
+
+	private static final Logger LOG = LoggerFactory.getLogger(LinkMappingTransformerFactory.class);
+
+	private volatile Map<String, Set<String>> linkAttributes;
+
+	private volatile boolean appendExtension;
+
+	private volatile int batchSize;
+
+	private volatile int maxBufferedEvents;
+
+	@Override
+	public Transformer createTransformer() {
+		return new LinkMappingTransformer(linkAttributes, appendExtension, batchSize, maxBufferedEvents);
+	}
+
+	@Activate
+	@Modified
+	protected void activate(final Configuration configuration) {
+		final Map<String, Set<String>> linkAttributes = new HashMap<>();
+
+		Arrays.stream(configuration.linkAttributes()).forEach(linkAttribute -> {
+			final String[] names = linkAttribute.toLowerCase(Locale.ENGLISH).split(":");
+
+			if (names.length == 2) {
+				linkAttributes.computeIfAbsent(names[0], element -> new HashSet<>()).add(names[1]);
+			} else {
+				LOG.warn("ignoring invalid link attribute : {}", linkAttribute);
+			}
+		});
+
+		this.linkAttributes = linkAttributes;
+
+		appendExtension = configuration.appendExtension();
+		batchSize = Math.max(1, configuration.batchSize());
+		maxBufferedEvents = Math.max(1, configuration.maxBufferedEvents());
+	}
+}
@@ -0,0 +1,154 @@
+package com.kayrasolutions.aem.foundation.core.migration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.base.Objects;
+
+/**
+ * Definition of a content migration, consisting of a page source and an ordered
+ * list of stages applied to the content of each page. The pipeline ID
+ * identifies the persisted checkpoint, so running a pipeline again with the
+ * same ID resumes after the last committed page of each partition.
+ */
+public final class MigrationPipeline {
+
+	/**
+	 * Create a builder for a pipeline with the given ID.
+	 *
+	 * @param id pipeline ID, used as the checkpoint node name
+	 * @return builder
+	 */
+	public static Builder builder(final String id) {
+		return new Builder(id);
+	}
+
+	public static final class Builder {
+
+		private final String id;
+
+		private final List<MigrationStage> stages = new ArrayList<>();
+
+		private MigrationSource source;
+
+		private int batchSize = 100;
+
+		private int partitionLevel = 2;
+
+		private Builder(final String id) {
+			checkArgument(id != null && id.matches("[A-Za-z0-9_-]+"), "invalid pipeline ID : %s", id);
+
+			this.id = id;
+		}
+
+		/**
+		 * @param source source of the pages to migrate
+		 * @return builder
+		 */
+		public Builder source(final MigrationSource source) {
+			this.source = checkNotNull(source);
+
+			return this;
+		}
+
+		/**
+		 * Add a stage, applied after any previously added stages.
+		 *
+		 * @param stage migration stage
+		 * @return builder
+		 */
+		public Builder stage(final MigrationStage stage) {
+			stages.add(checkNotNull(stage));
+
+			return this;
+		}
+
+		/**
+		 * @param batchSize number of pages per commit, defaults to 100
+		 * @return builder
+		 */
+		public Builder batchSize(final int batchSize) {
+			checkArgument(batchSize > 0, "batch size must be greater than zero");
+
+			this.batchSize = batchSize;
+
+			return this;
+		}
+
+		/**
+		 * Set the absolute level of the ancestor used to partition pages into
+		 * subtrees that are migrated in parallel. Levels follow
+		 * <code>Page.getAbsoluteParent()</code>, e.g. level 2 groups pages below
+		 * <code>/content/site/en</code> into a single partition.
+		 *
+		 * @param partitionLevel absolute ancestor level, defaults to 2
+		 * @return builder
+		 */
+		public Builder partitionLevel(final int partitionLevel) {
+			checkArgument(partitionLevel >= 0, "partition level must not be negative");
+
+			this.partitionLevel = partitionLevel;
+
+			return this;
+		}
+
+		/**
+		 * @return pipeline
+		 */
+		public MigrationPipeline build() {
+			checkState(source != null, "source is required");
+			checkState(!stages.isEmpty(), "at least one stage is required");
+
+			return new MigrationPipeline(this);
+		}
+	}
+
+	private final String id;
+
+	private final MigrationSource source;
+
+	private final List<MigrationStage> stages;
+
+	private final int batchSize;
+
+	private final int partitionLevel;
+
+	private MigrationPipeline(final Builder builder) {
+		id = builder.id;
+		source = builder.source;
+		stages = Collections.unmodifiableList(new ArrayList<>(builder.stages));
+		batchSize = builder.batchSize;
+		partitionLevel = builder.partitionLevel;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public MigrationSource getSource() {
+		return source;
+	}
+
+	public List<MigrationStage> getStages() {
+		return stages;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public int getPartitionLevel() {
+		return partitionLevel;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this).add("id", id).add("stages", stages.size()).add("batchSize", batchSize)
+				.add("partitionLevel", partitionLevel).toString();
+	}
+}
@@ -0,0 +1,47 @@
+package com.kayrasolutions.aem.foundation.core.migration;
+
+import java.util.Map;
+
+/**
+ * Summary of a migration pipeline run.
+ */
+public interface MigrationResult {
+
+	/**
+	 * @return number of pages visited in this run
+	 */
+	int getProcessedCount();
+
+	/**
+	 * @return number of pages modified by at least one stage in this run
+	 */
+	int getModifiedCount();
+
+	/**
+	 * @return number of pages skipped because they were committed by a previous
+	 *         run
+	 */
+	int getSkippedCount();
+
+	/**
+	 * Get the pages and partitions that failed. A page that fails is reverted,
+	 * recorded in the partition checkpoint, and passed over, so running the
+	 * pipeline again does not retry it until the pipeline is reset. A partition
+	 * stops only if a batch cannot be committed; its checkpoint is left at the
+	 * last committed page, so running the pipeline again retries from there.
+	 *
+	 * @return map of page paths or partition keys to the corresponding error
+	 *         message
+	 */
+	Map<String, String> getFailures();
+
+	/**
+	 * @return true if all pages and partitions completed without error
+	 */
+	boolean isComplete();
+
+	/**
+	 * @return elapsed time in milliseconds
+	 */
+	long getElapsedMillis();
+}
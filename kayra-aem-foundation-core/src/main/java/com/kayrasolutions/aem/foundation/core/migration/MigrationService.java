@@ -0,0 +1,30 @@
+package com.kayrasolutions.aem.foundation.core.migration;
+
+import org.apache.sling.api.resource.ResourceResolver;
+
+/**
+ * Runs content migration pipelines. Pages are grouped into subtree partitions,
+ * each of which is migrated on a thread pool dedicated to the run with its own
+ * service resource resolver. Changes are committed in batches together with a
+ * per-partition checkpoint, so a pipeline that fails or is interrupted can be
+ * run again and resumes after the last committed page.
+ */
+public interface MigrationService {
+
+	/**
+	 * Run a migration pipeline, blocking until all partitions have finished.
+	 *
+	 * @param pipeline         pipeline to run
+	 * @param resourceResolver resource resolver used to find the source pages
+	 * @return migration result
+	 */
+	MigrationResult run(MigrationPipeline pipeline, ResourceResolver resourceResolver);
+
+	/**
+	 * Remove the persisted checkpoint for a pipeline, so the next run starts from
+	 * the beginning.
+	 *
+	 * @param pipelineId pipeline ID
+	 */
+	void reset(String pipelineId);
+}
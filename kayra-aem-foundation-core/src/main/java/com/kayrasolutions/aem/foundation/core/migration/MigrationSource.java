@@ -0,0 +1,76 @@
+package com.kayrasolutions.aem.foundation.core.migration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.sling.api.resource.ResourceResolver;
+
+import com.day.cq.tagging.TagManager;
+import com.kayrasolutions.aem.foundation.api.page.FoundationPage;
+import com.kayrasolutions.aem.foundation.api.page.FoundationPageManager;
+
+/**
+ * Source of the pages to be migrated by a pipeline.
+ */
+@FunctionalInterface
+public interface MigrationSource {
+
+	/**
+	 * Page tree source, including the root page and all of its descendants.
+	 *
+	 * @param rootPath root page path
+	 * @return source
+	 */
+	static MigrationSource forRoot(final String rootPath) {
+		return resourceResolver -> {
+			final List<String> paths = new ArrayList<>();
+
+			final FoundationPage page = resourceResolver.adaptTo(FoundationPageManager.class).getPage(rootPath);
+
+			if (page != null) {
+				paths.add(page.getPath());
+
+				page.listChildPages(child -> true, true).forEachRemaining(child -> paths.add(child.getPath()));
+			}
+
+			return paths;
+		};
+	}
+
+	/**
+	 * Query source, including the containing page of each query result.
+	 *
+	 * @param statement query statement
+	 * @param language  query language (e.g. <code>Query.JCR_SQL2</code>)
+	 * @return source
+	 */
+	static MigrationSource forQuery(final String statement, final String language) {
+		return resourceResolver -> MigrationSources.getContainingPagePaths(resourceResolver,
+				resourceResolver.findResources(statement, language));
+	}
+
+	/**
+	 * Tag source, including all descendant pages of the root path containing the
+	 * specified tags.
+	 *
+	 * @param rootPath root path
+	 * @param tagIds   tag IDs
+	 * @param matchOne if true, 'OR' the specified tag IDs, 'AND' otherwise
+	 * @return source
+	 */
+	static MigrationSource forTags(final String rootPath, final Collection<String> tagIds, final boolean matchOne) {
+		return resourceResolver -> MigrationSources.getContainingPagePaths(resourceResolver,
+				resourceResolver.adaptTo(TagManager.class).find(rootPath, tagIds.toArray(new String[0]), matchOne));
+	}
+
+	/**
+	 * Get the paths of the pages to migrate. Paths returned by this method are
+	 * visited in sorted order by the pipeline, regardless of the order in which
+	 * they are returned.
+	 *
+	 * @param resourceResolver resource resolver of the caller running the pipeline
+	 * @return page paths
+	 */
+	List<String> getPagePaths(ResourceResolver resourceResolver);
+}
@@ -0,0 +1,37 @@
+package com.kayrasolutions.aem.foundation.core.migration;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+
+import com.kayrasolutions.aem.foundation.api.page.FoundationPage;
+import com.kayrasolutions.aem.foundation.api.page.FoundationPageManager;
+
+final class MigrationSources {
+
+	static List<String> getContainingPagePaths(final ResourceResolver resourceResolver,
+			final Iterator<Resource> resources) {
+		final FoundationPageManager pageManager = resourceResolver.adaptTo(FoundationPageManager.class);
+
+		final Set<String> paths = new LinkedHashSet<>();
+
+		while (resources.hasNext()) {
+			final FoundationPage page = pageManager.getContainingPage(resources.next());
+
+			if (page != null) {
+				paths.add(page.getPath());
+			}
+		}
+
+		return new ArrayList<>(paths);
+	}
+
+	private MigrationSources() {
+
+	}
+}
@@ -0,0 +1,22 @@
+package com.kayrasolutions.aem.foundation.core.migration;
+
+import com.kayrasolutions.aem.foundation.api.resource.ComponentResource;
+
+/**
+ * Single transformation step of a migration pipeline. Stages are applied in
+ * order to the content of each page and may modify the underlying resources
+ * through <code>ModifiableValueMap</code> or the resource resolver, but must
+ * not commit; changes are committed by the pipeline in batches.
+ */
+@FunctionalInterface
+public interface MigrationStage {
+
+	/**
+	 * Transform the content of a page.
+	 *
+	 * @param componentResource component resource for the page content
+	 *                          (<code>jcr:content</code>) node
+	 * @return true if the content was modified
+	 */
+	boolean transform(ComponentResource componentResource);
+}
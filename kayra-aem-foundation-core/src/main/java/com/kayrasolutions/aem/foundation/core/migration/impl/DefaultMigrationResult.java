@@ -0,0 +1,66 @@
+package com.kayrasolutions.aem.foundation.core.migration.impl;
+
+import java.util.Collections;
+import java.util.Map;
+
+import com.google.common.base.Objects;
+import com.kayrasolutions.aem.foundation.core.migration.MigrationResult;
+
+public final class DefaultMigrationResult implements MigrationResult {
+
+	private final int processedCount;
+
+	private final int modifiedCount;
+
+	private final int skippedCount;
+
+	private final Map<String, String> failures;
+
+	private final long elapsedMillis;
+
+	public DefaultMigrationResult(final int processedCount, final int modifiedCount, final int skippedCount,
+			final Map<String, String> failures, final long elapsedMillis) {
+		this.processedCount = processedCount;
+		this.modifiedCount = modifiedCount;
+		this.skippedCount = skippedCount;
+		this.failures = Collections.unmodifiableMap(failures);
+		this.elapsedMillis = elapsedMillis;
+	}
+
+	@Override
+	public int getProcessedCount() {
+		return processedCount;
+	}
+
+	@Override
+	public int getModifiedCount() {
+		return modifiedCount;
+	}
+
+	@Override
+	public int getSkippedCount() {
+		return skippedCount;
+	}
+
+	@Override
+	public Map<String, String> getFailures() {
+		return failures;
+	}
+
+	@Override
+	public boolean isComplete() {
+		return failures.isEmpty();
+	}
+
+	@Override
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this).add("processedCount", processedCount).add("modifiedCount", modifiedCount)
+				.add("skippedCount", skippedCount).add("failures", failures.size())
+				.add("elapsedMillis", elapsedMillis).toString();
+	}
+}
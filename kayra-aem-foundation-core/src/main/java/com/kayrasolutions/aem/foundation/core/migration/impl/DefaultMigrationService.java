@@ -0,0 +1,404 @@
+package com.kayrasolutions.aem.foundation.core.migration.impl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.sling.api.resource.LoginException;
+import org.apache.sling.api.resource.ModifiableValueMap;
+import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.apache.sling.api.resource.ResourceUtil;
+import org.apache.sling.api.resource.ValueMap;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.propertytypes.ServiceDescription;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.day.cq.commons.jcr.JcrConstants;
+import com.day.text.Text;
+import com.google.common.base.Stopwatch;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.kayrasolutions.aem.foundation.api.page.FoundationPage;
+import com.kayrasolutions.aem.foundation.api.page.FoundationPageManager;
+import com.kayrasolutions.aem.foundation.api.resource.ComponentResource;
+import com.kayrasolutions.aem.foundation.core.migration.MigrationPipeline;
+import com.kayrasolutions.aem.foundation.core.migration.MigrationResult;
+import com.kayrasolutions.aem.foundation.core.migration.MigrationService;
+import com.kayrasolutions.aem.foundation.core.migration.MigrationStage;
+
+@Component(service = MigrationService.class)
+@Designate(ocd = DefaultMigrationService.Configuration.class)
+@ServiceDescription("Kayra Solutions Migration Service")
+public final class DefaultMigrationService implements MigrationService {
+
+	@ObjectClassDefinition(name = "Kayra Solutions Migration Service")
+	public @interface Configuration {
+
+		@AttributeDefinition(name = "Checkpoint Path", description = "Repository path under which pipeline "
+				+ "checkpoints are stored. The migration service user requires write access to this path.")
+		String checkpointPath() default "/var/foundation/migration";
+
+		@AttributeDefinition(name = "Max Concurrent Partitions", description = "Maximum number of partitions "
+				+ "migrated concurrently by a single pipeline run.")
+		int maxConcurrentPartitions() default 4;
+
+		@AttributeDefinition(name = "Sub-Service Name", description = "Sub-service name used to acquire service "
+				+ "resource resolvers for migrating partitions.")
+		String subServiceName() default "foundation-service";
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(DefaultMigrationService.class);
+
+	private static final String PROPERTY_PARTITION = "partition";
+
+	private static final String PROPERTY_LAST_PATH = "lastPath";
+
+	private static final String PROPERTY_FAILED_PATHS = "failedPaths";
+
+	@Reference
+	private ResourceResolverFactory resourceResolverFactory;
+
+	private volatile String checkpointPath;
+
+	private volatile int maxConcurrentPartitions;
+
+	private volatile String subServiceName;
+
+	@Override
+	public MigrationResult run(final MigrationPipeline pipeline, final ResourceResolver resourceResolver) {
+		checkNotNull(pipeline);
+		checkNotNull(resourceResolver);
+
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final Map<String, List<String>> partitions = getPartitions(pipeline,
+				pipeline.getSource().getPagePaths(resourceResolver));
+
+		LOG.info("running pipeline : {} with {} partition(s)", pipeline, partitions.size());
+
+		final String pipelinePath = getPipelinePath(pipeline.getId());
+
+		try (final ResourceResolver serviceResourceResolver = getServiceResourceResolver()) {
+			createPipelineCheckpoint(serviceResourceResolver, pipelinePath);
+		}
+
+		final PipelineRun run = new PipelineRun();
+
+		// partitions run on a pool owned by this run rather than the shared foundation executor, so a long
+		// migration neither starves other tasks nor blocks on work queued behind it
+		final ExecutorService partitionExecutor = Executors.newFixedThreadPool(
+				Math.max(1, Math.min(maxConcurrentPartitions, partitions.size())),
+				new ThreadFactoryBuilder().setNameFormat("foundation-migration-" + pipeline.getId() + "-%d")
+						.setDaemon(true).build());
+
+		try {
+			final List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+			for (final Map.Entry<String, List<String>> partition : partitions.entrySet()) {
+				futures.add(submitPartition(partitionExecutor, pipeline, pipelinePath, partition.getKey(),
+						partition.getValue(), run));
+			}
+
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+		} finally {
+			partitionExecutor.shutdown();
+		}
+
+		stopwatch.stop();
+
+		final MigrationResult result = new DefaultMigrationResult(run.processedCount.get(), run.modifiedCount.get(),
+				run.skippedCount.get(), run.failures, stopwatch.elapsed(MILLISECONDS));
+
+		LOG.info("completed pipeline : {} with result : {}", pipeline.getId(), result);
+
+		return result;
+	}
+
+	@Override
+	public void reset(final String pipelineId) {
+		final String pipelinePath = getPipelinePath(checkNotNull(pipelineId));
+
+		try (final ResourceResolver serviceResourceResolver = getServiceResourceResolver()) {
+			final Resource resource = serviceResourceResolver.getResource(pipelinePath);
+
+			if (resource != null) {
+				try {
+					serviceResourceResolver.delete(resource);
+					serviceResourceResolver.commit();
+				} catch (PersistenceException e) {
+					throw new IllegalStateException(e);
+				}
+
+				LOG.info("removed checkpoint for pipeline : {}", pipelineId);
+			}
+		}
+	}
+
+	@Activate
+	@Modified
+	protected void activate(final Configuration configuration) {
+		checkpointPath = configuration.checkpointPath();
+		maxConcurrentPartitions = Math.max(1, configuration.maxConcurrentPartitions());
+		subServiceName = configuration.subServiceName();
+	}
+
+	// internals
+
+	private static final class PipelineRun {
+
+		private final AtomicInteger processedCount = new AtomicInteger();
+
+		private final AtomicInteger modifiedCount = new AtomicInteger();
+
+		private final AtomicInteger skippedCount = new AtomicInteger();
+
+		private final Map<String, String> failures = new ConcurrentSkipListMap<>();
+	}
+
+	private Map<String, List<String>> getPartitions(final MigrationPipeline pipeline, final List<String> paths) {
+		final Map<String, List<String>> partitions = new TreeMap<>();
+
+		for (final String path : paths) {
+			final String ancestorPath = Text.getAbsoluteParent(path, pipeline.getPartitionLevel());
+			final String partition = ancestorPath.isEmpty() ? path : ancestorPath;
+
+			partitions.computeIfAbsent(partition, key -> new ArrayList<>()).add(path);
+		}
+
+		// sorted order allows resuming after the last committed path
+		partitions.values().forEach(Collections::sort);
+
+		return partitions;
+	}
+
+	private ResourceResolver getServiceResourceResolver() {
+		try {
+			return resourceResolverFactory.getServiceResourceResolver(
+					Collections.singletonMap(ResourceResolverFactory.SUBSERVICE, subServiceName));
+		} catch (LoginException e) {
+			LOG.error("error acquiring service resource resolver for sub-service : " + subServiceName, e);
+
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private String getPipelinePath(final String pipelineId) {
+		return checkpointPath + "/" + pipelineId;
+	}
+
+	private void createPipelineCheckpoint(final ResourceResolver resourceResolver, final String pipelinePath) {
+		try {
+			ResourceUtil.getOrCreateResource(resourceResolver, pipelinePath,
+					Collections.singletonMap(JcrConstants.JCR_PRIMARYTYPE, "sling:Folder"), "sling:Folder", true);
+		} catch (PersistenceException e) {
+			LOG.error("error creating checkpoint for path : " + pipelinePath, e);
+
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private CompletableFuture<Void> submitPartition(final ExecutorService partitionExecutor,
+			final MigrationPipeline pipeline, final String pipelinePath, final String partition,
+			final List<String> paths, final PipelineRun run) {
+		return CompletableFuture.runAsync(() -> {
+			try (final ResourceResolver resourceResolver = getServiceResourceResolver()) {
+				migratePartition(resourceResolver, pipeline, pipelinePath, partition, paths, run);
+			}
+		}, partitionExecutor).handle((result, e) -> {
+			if (e != null) {
+				final Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+
+				LOG.error("error migrating partition : " + partition, cause);
+
+				run.failures.put(partition, String.valueOf(cause.getMessage()));
+			}
+
+			return null;
+		});
+	}
+
+	private void migratePartition(final ResourceResolver resourceResolver, final MigrationPipeline pipeline,
+			final String pipelinePath, final String partition, final List<String> paths, final PipelineRun run) {
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final String checkpointPath = pipelinePath + "/"
+				+ Hashing.sha1().hashString(partition, StandardCharsets.UTF_8).toString();
+
+		final String lastCommittedPath = Optional.ofNullable(resourceResolver.getResource(checkpointPath))
+				.map(Resource::getValueMap)
+				.map(properties -> properties.get(PROPERTY_LAST_PATH, String.class))
+				.orElse(null);
+
+		final FoundationPageManager pageManager = resourceResolver.adaptTo(FoundationPageManager.class);
+
+		// uncommitted page paths mapped to whether the page was modified
+		final Map<String, Boolean> pending = new LinkedHashMap<>();
+
+		// pages that failed since the last commit
+		final List<String> failedPaths = new ArrayList<>();
+
+		int pendingCount = 0;
+		String lastPath = null;
+
+		try {
+			for (final String path : paths) {
+				if (lastCommittedPath != null && path.compareTo(lastCommittedPath) <= 0) {
+					run.skippedCount.incrementAndGet();
+					continue;
+				}
+
+				try {
+					pending.put(path, migratePage(pageManager, path, pipeline.getStages()));
+				} catch (RuntimeException e) {
+					LOG.error("error migrating page : " + path + ", replaying " + pending.size() + " pending page(s)",
+							e);
+
+					run.failures.put(path, String.valueOf(e.getMessage()));
+					failedPaths.add(path);
+
+					// discard partial changes of the failed page, then replay the pending pages
+					resourceResolver.revert();
+					replay(resourceResolver, pageManager, pipeline.getStages(), pending, failedPaths, run);
+				}
+
+				pendingCount++;
+				lastPath = path;
+
+				if (pendingCount == pipeline.getBatchSize()) {
+					commit(resourceResolver, checkpointPath, partition, lastPath, failedPaths);
+
+					run.processedCount.addAndGet(pendingCount);
+					run.modifiedCount.addAndGet(getModifiedCount(pending));
+
+					pendingCount = 0;
+					pending.clear();
+					failedPaths.clear();
+				}
+			}
+
+			if (pendingCount > 0) {
+				commit(resourceResolver, checkpointPath, partition, lastPath, failedPaths);
+
+				run.processedCount.addAndGet(pendingCount);
+				run.modifiedCount.addAndGet(getModifiedCount(pending));
+			}
+		} catch (PersistenceException | RuntimeException e) {
+			LOG.error("error migrating partition : " + partition + ", reverting batch ending at path : " + lastPath,
+					e);
+
+			resourceResolver.revert();
+
+			run.failures.put(partition, String.valueOf(e.getMessage()));
+		}
+
+		LOG.info("migrated partition : {} in {}ms", partition, stopwatch.elapsed(MILLISECONDS));
+	}
+
+	/**
+	 * Re-migrate the pending pages of a batch after the session was reverted. A
+	 * page that fails during the replay is recorded as failed and removed from the
+	 * batch, and the replay restarts from a reverted session.
+	 */
+	private void replay(final ResourceResolver resourceResolver, final FoundationPageManager pageManager,
+			final List<MigrationStage> stages, final Map<String, Boolean> pending, final List<String> failedPaths,
+			final PipelineRun run) {
+		boolean replayed = false;
+
+		while (!replayed) {
+			replayed = true;
+
+			final Iterator<Map.Entry<String, Boolean>> iterator = pending.entrySet().iterator();
+
+			while (replayed && iterator.hasNext()) {
+				final Map.Entry<String, Boolean> entry = iterator.next();
+
+				try {
+					entry.setValue(migratePage(pageManager, entry.getKey(), stages));
+				} catch (RuntimeException e) {
+					LOG.error("error replaying page : " + entry.getKey(), e);
+
+					run.failures.put(entry.getKey(), String.valueOf(e.getMessage()));
+					failedPaths.add(entry.getKey());
+					iterator.remove();
+
+					resourceResolver.revert();
+
+					replayed = false;
+				}
+			}
+		}
+	}
+
+	private static int getModifiedCount(final Map<String, Boolean> pending) {
+		return (int) pending.values().stream().filter(Boolean::booleanValue).count();
+	}
+
+	private boolean migratePage(final FoundationPageManager pageManager, final String path,
+			final List<MigrationStage> stages) {
+		boolean modified = false;
+
+		for (final MigrationStage stage : stages) {
+			// reacquire the content for each stage since a previous stage may have restructured it
+			final Optional<ComponentResource> componentResource = Optional.ofNullable(pageManager.getPage(path))
+					.flatMap(FoundationPage::getComponentResource);
+
+			if (!componentResource.isPresent()) {
+				break;
+			}
+
+			modified |= stage.transform(componentResource.get());
+		}
+
+		return modified;
+	}
+
+	private void commit(final ResourceResolver resourceResolver, final String checkpointPath,
+			final String partition, final String lastPath, final List<String> failedPaths)
+			throws PersistenceException {
+		final Resource checkpoint = ResourceUtil.getOrCreateResource(resourceResolver, checkpointPath,
+				Collections.singletonMap(JcrConstants.JCR_PRIMARYTYPE, JcrConstants.NT_UNSTRUCTURED), null, false);
+
+		final ValueMap properties = checkpoint.adaptTo(ModifiableValueMap.class);
+
+		properties.put(PROPERTY_PARTITION, partition);
+		properties.put(PROPERTY_LAST_PATH, lastPath);
+
+		if (!failedPaths.isEmpty()) {
+			// failed pages are passed over by later runs, so keep a record of them with the checkpoint
+			final List<String> allFailedPaths = new ArrayList<>(
+					Arrays.asList(properties.get(PROPERTY_FAILED_PATHS, new String[0])));
+
+			allFailedPaths.addAll(failedPaths);
+
+			properties.put(PROPERTY_FAILED_PATHS, allFailedPaths.toArray(new String[0]));
+		}
+
+		resourceResolver.commit();
+	}
+}
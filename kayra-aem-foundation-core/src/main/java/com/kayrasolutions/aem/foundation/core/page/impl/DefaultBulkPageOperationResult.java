@@ -0,0 +1,58 @@
+package com.kayrasolutions.aem.foundation.core.page.impl;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Objects;
+import com.kayrasolutions.aem.foundation.api.page.bulk.BulkPageOperationResult;
+
+public final class DefaultBulkPageOperationResult implements BulkPageOperationResult {
+
+	private final List<String> succeededPaths;
+
+	private final Map<Integer, String> failures;
+
+	private final int batchCount;
+
+	private final long elapsedMillis;
+
+	public DefaultBulkPageOperationResult(final List<String> succeededPaths, final Map<Integer, String> failures,
+			final int batchCount, final long elapsedMillis) {
+		this.succeededPaths = Collections.unmodifiableList(succeededPaths);
+		this.failures = Collections.unmodifiableMap(failures);
+		this.batchCount = batchCount;
+		this.elapsedMillis = elapsedMillis;
+	}
+
+	@Override
+	public List<String> getSucceededPaths() {
+		return succeededPaths;
+	}
+
+	@Override
+	public Map<Integer, String> getFailures() {
+		return failures;
+	}
+
+	@Override
+	public int getBatchCount() {
+		return batchCount;
+	}
+
+	@Override
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	@Override
+	public double getPagesPerSecond() {
+		return elapsedMillis == 0 ? succeededPaths.size() : succeededPaths.size() * 1000d / elapsedMillis;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this).add("succeeded", succeededPaths.size()).add("failed", failures.size())
+				.add("batchCount", batchCount).add("elapsedMillis", elapsedMillis).toString();
+	}
+}
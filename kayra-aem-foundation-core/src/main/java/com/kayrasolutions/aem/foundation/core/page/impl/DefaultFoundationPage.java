@@ -2,6 +2,7 @@ package com.kayrasolutions.aem.foundation.core.page.impl;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
@@ -10,6 +11,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.EqualsBuilder;
@@ -29,15 +31,23 @@ import com.day.cq.wcm.commons.DeepResourceIterator;
 import com.google.common.base.Objects;
 import com.kayrasolutions.aem.foundation.api.Accessible;
 import com.kayrasolutions.aem.foundation.api.Inheritable;
+import com.kayrasolutions.aem.foundation.api.TraversalResult;
 import com.kayrasolutions.aem.foundation.api.link.Link;
 import com.kayrasolutions.aem.foundation.api.link.builders.LinkBuilder;
 import com.kayrasolutions.aem.foundation.api.page.FoundationPage;
 import com.kayrasolutions.aem.foundation.api.page.FoundationPageManager;
 import com.kayrasolutions.aem.foundation.api.page.enums.TitleType;
 import com.kayrasolutions.aem.foundation.api.resource.ComponentResource;
+import com.kayrasolutions.aem.foundation.core.admission.AdmissionController;
+import com.kayrasolutions.aem.foundation.core.admission.LimitedOperation;
+import com.kayrasolutions.aem.foundation.core.constants.PropertyConstants;
 import com.kayrasolutions.aem.foundation.core.link.builders.factory.LinkBuilderFactory;
+import com.kayrasolutions.aem.foundation.core.link.builders.impl.DefaultLinkBuilder;
 import com.kayrasolutions.aem.foundation.core.resource.predicates.ComponentResourcePropertyExistsPredicate;
 import com.kayrasolutions.aem.foundation.core.resource.predicates.ComponentResourcePropertyValuePredicate;
+import com.kayrasolutions.aem.foundation.core.traversal.TraversalBudget;
+import com.kayrasolutions.aem.foundation.core.traversal.impl.DefaultTraversalResult;
+import com.kayrasolutions.aem.foundation.core.vanity.VanityIndex;
 
 @Model(adaptables = Page.class, adapters = FoundationPage.class)
 public final class DefaultFoundationPage implements FoundationPage {
@@ -139,23 +149,33 @@ public final class DefaultFoundationPage implements FoundationPage {
 
 	@Override
 	public List<FoundationPage> findDescendants(final Predicate<FoundationPage> predicate) {
-		final List<FoundationPage> pages = new ArrayList<>();
-
-		final FoundationPageManager pageManager = getPageManager();
+		final AdmissionController admissionController = getAdmissionController();
 
-		final Iterator<Page> iterator = page.listChildren(ALL_PAGES, true);
-
-		while (iterator.hasNext()) {
-			final FoundationPage page = pageManager.getPage(iterator.next());
+		final List<FoundationPage> pages;
 
-			if (predicate.test(page)) {
-				pages.add(page);
-			}
+		if (admissionController == null) {
+			pages = filterChildren(predicate, true);
+		} else {
+			// degrade to direct children only if the deep traversal is rejected
+			pages = admissionController.execute(LimitedOperation.FIND_DESCENDANTS,
+					() -> filterChildren(predicate, true), () -> filterChildren(predicate, false));
 		}
 
 		return pages;
 	}
 
+	@Override
+	public TraversalResult<FoundationPage> findDescendants(final Predicate<FoundationPage> predicate,
+			final Instant deadline) {
+		return findDescendantsForBudget(checkNotNull(predicate), TraversalBudget.forDeadline(checkNotNull(deadline)));
+	}
+
+	@Override
+	public TraversalResult<FoundationPage> findDescendants(final Predicate<FoundationPage> predicate,
+			final int maxVisits) {
+		return findDescendantsForBudget(checkNotNull(predicate), TraversalBudget.forMaxVisits(maxVisits));
+	}
+
 	@Override
 	public <T> T get(final String propertyName, final T defaultValue) {
 		return getComponentResource().map(componentResource -> componentResource.get(propertyName, defaultValue))
@@ -526,6 +546,27 @@ public final class DefaultFoundationPage implements FoundationPage {
 		return getLinkBuilder(titleType, mapped).build();
 	}
 
+	@Override
+	public Link getLink(final TitleType titleType, final boolean mapped, final boolean preferVanity) {
+		final Optional<String> vanityPath = preferVanity
+				&& getProperties().get(PropertyConstants.REDIRECT_TARGET, "").isEmpty() ? getFirstVanityPath()
+						: Optional.empty();
+
+		final LinkBuilder linkBuilder;
+
+		if (vanityPath.isPresent()) {
+			// vanity paths are requested as-is, without an extension
+			linkBuilder = new DefaultLinkBuilder(vanityPath.get(),
+					mapped ? page.adaptTo(Resource.class).getResourceResolver() : null)
+					.setExtension("")
+					.setTitle(getProperties().get(titleType.getPropertyName(), getTitle()));
+		} else {
+			linkBuilder = getLinkBuilder(titleType, mapped);
+		}
+
+		return linkBuilder.build();
+	}
+
 	@Override
 	public LinkBuilder getLinkBuilder(final TitleType titleType) {
 		return getLinkBuilder(titleType, false);
@@ -543,7 +584,13 @@ public final class DefaultFoundationPage implements FoundationPage {
 
 	@Override
 	public Link getNavigationLink(final boolean isActive, final boolean mapped) {
-		return LinkBuilderFactory.forPage(this, mapped, TitleType.NAVIGATION_TITLE).setActive(isActive).build();
+		return getNavigationLink(isActive, mapped, false);
+	}
+
+	@Override
+	public Link getNavigationLink(final boolean isActive, final boolean mapped, final boolean resolveRedirects) {
+		return LinkBuilderFactory.forPage(this, mapped, TitleType.NAVIGATION_TITLE, resolveRedirects)
+				.setActive(isActive).build();
 	}
 
 	@Override
@@ -778,6 +825,64 @@ public final class DefaultFoundationPage implements FoundationPage {
 		return Optional.ofNullable(ancestorPage);
 	}
 
+	private TraversalResult<FoundationPage> findDescendantsForBudget(final Predicate<FoundationPage> predicate,
+			final TraversalBudget budget) {
+		final Supplier<TraversalResult<FoundationPage>> traversal = () -> {
+			final List<FoundationPage> pages = new ArrayList<>();
+
+			final FoundationPageManager pageManager = getPageManager();
+
+			final Iterator<Page> iterator = page.listChildren(ALL_PAGES, true);
+
+			while (iterator.hasNext() && budget.visit()) {
+				final FoundationPage page = pageManager.getPage(iterator.next());
+
+				if (page != null && predicate.test(page)) {
+					pages.add(page);
+				}
+			}
+
+			return budget.toResult(pages);
+		};
+
+		final AdmissionController admissionController = getAdmissionController();
+
+		// a rejected traversal visits nothing and is reported as truncated
+		return admissionController == null ? traversal.get()
+				: admissionController.execute(LimitedOperation.FIND_DESCENDANTS, traversal,
+						() -> new DefaultTraversalResult<>(Collections.emptyList(), true, 0));
+	}
+
+	/**
+	 * Get the page manager of this page's resource resolver if it supplies the
+	 * foundation services. The resolver caches its page manager, so the services
+	 * are not looked up again for each page.
+	 *
+	 * @return page manager, or null
+	 */
+	private DefaultFoundationPageManager getDefaultPageManager() {
+		final FoundationPageManager pageManager = page.adaptTo(Resource.class).getResourceResolver()
+				.adaptTo(FoundationPageManager.class);
+
+		return pageManager instanceof DefaultFoundationPageManager ? (DefaultFoundationPageManager) pageManager
+				: null;
+	}
+
+	private AdmissionController getAdmissionController() {
+		final DefaultFoundationPageManager pageManager = getDefaultPageManager();
+
+		return pageManager == null ? null : pageManager.getAdmissionController();
+	}
+
+	private Optional<String> getFirstVanityPath() {
+		final DefaultFoundationPageManager pageManager = getDefaultPageManager();
+		final VanityIndex vanityIndex = pageManager == null ? null : pageManager.getVanityIndex();
+
+		// use the index when available to avoid reading the page properties
+		return vanityIndex != null && vanityIndex.isReady() ? vanityIndex.getVanityPath(getPath())
+				: Optional.ofNullable(page.getVanityUrl()).filter(StringUtils::isNotEmpty);
+	}
+
 	private List<FoundationPage> filterChildren(final Predicate<FoundationPage> predicate, final boolean deep) {
 		final List<FoundationPage> pages = new ArrayList<>();
 
@@ -1,22 +1,35 @@
 package com.kayrasolutions.aem.foundation.core.page.impl;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import javax.jcr.Node;
 import javax.jcr.RepositoryException;
+import javax.jcr.Session;
 import javax.jcr.query.Query;
 import javax.jcr.query.RowIterator;
 
+import org.apache.sling.api.resource.PersistenceException;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.api.resource.ResourceResolver;
 import org.slf4j.Logger;
@@ -32,9 +45,19 @@ import com.day.cq.wcm.api.Template;
 import com.day.cq.wcm.api.WCMException;
 import com.day.cq.wcm.api.msm.Blueprint;
 import com.google.common.base.Stopwatch;
+import com.kayrasolutions.aem.foundation.api.TraversalResult;
 import com.kayrasolutions.aem.foundation.api.page.FoundationPage;
 import com.kayrasolutions.aem.foundation.api.page.FoundationPageManager;
+import com.kayrasolutions.aem.foundation.api.page.bulk.BulkPageOperationResult;
+import com.kayrasolutions.aem.foundation.api.page.bulk.BulkProgressListener;
+import com.kayrasolutions.aem.foundation.api.page.bulk.PageOperation;
+import com.kayrasolutions.aem.foundation.core.admission.AdmissionController;
+import com.kayrasolutions.aem.foundation.core.admission.AdmissionRejectedException;
+import com.kayrasolutions.aem.foundation.core.admission.LimitedOperation;
+import com.kayrasolutions.aem.foundation.core.executor.FoundationExecutor;
 import com.kayrasolutions.aem.foundation.core.page.predicates.TemplatePredicate;
+import com.kayrasolutions.aem.foundation.core.traversal.impl.DefaultTraversalResult;
+import com.kayrasolutions.aem.foundation.core.vanity.VanityIndex;
 
 public final class DefaultFoundationPageManager implements FoundationPageManager {
 
@@ -44,8 +67,40 @@ public final class DefaultFoundationPageManager implements FoundationPageManager
 
 	private final PageManager pageManager;
 
+	private final FoundationExecutor executor;
+
+	private final AdmissionController admissionController;
+
+	private final VanityIndex vanityIndex;
+
+	private final RecentResultsCache recentResults;
+
 	public DefaultFoundationPageManager(final ResourceResolver resourceResolver) {
+		this(resourceResolver, null, null, null, null);
+	}
+
+	/**
+	 * @param resourceResolver    resource resolver
+	 * @param executor            executor for asynchronous searches, or null to
+	 *                            execute asynchronous searches on the calling
+	 *                            thread
+	 * @param admissionController admission controller limiting concurrent
+	 *                            searches, or null for no limit
+	 * @param vanityIndex         vanity path index used by pages of this
+	 *                            manager, or null to read vanity paths from the
+	 *                            page properties
+	 * @param recentResults       cache of recent search results returned when a
+	 *                            search is rejected, or null to return partial
+	 *                            results instead
+	 */
+	public DefaultFoundationPageManager(final ResourceResolver resourceResolver, final FoundationExecutor executor,
+			final AdmissionController admissionController, final VanityIndex vanityIndex,
+			final RecentResultsCache recentResults) {
 		this.resourceResolver = resourceResolver;
+		this.executor = executor;
+		this.admissionController = admissionController;
+		this.vanityIndex = vanityIndex;
+		this.recentResults = recentResults;
 
 		pageManager = resourceResolver.adaptTo(PageManager.class);
 	}
@@ -75,54 +130,148 @@ public final class DefaultFoundationPageManager implements FoundationPageManager
 	}
 
 	@Override
-	public List<FoundationPage> findPages(final String rootPath, final Collection<String> tagIds,
-			final boolean matchOne) {
-		checkNotNull(rootPath);
-		checkNotNull(tagIds);
-
-		LOG.debug("path = {}, tag IDs = {}", rootPath, tagIds);
+	public BulkPageOperationResult execute(final List<PageOperation> operations, final int batchSize,
+			final BulkProgressListener listener) {
+		checkNotNull(operations);
+		checkArgument(batchSize > 0, "batch size must be greater than zero");
 
 		final Stopwatch stopwatch = Stopwatch.createStarted();
 
-		final RangeIterator<Resource> iterator = resourceResolver.adaptTo(TagManager.class).find(rootPath,
-				tagIds.toArray(new String[0]), matchOne);
+		final List<String> succeededPaths = new ArrayList<>();
+		// failures are keyed by operation index, so that equal operations are reported separately
+		final Map<Integer, String> failures = new TreeMap<>();
 
-		final List<FoundationPage> pages = new ArrayList<>();
+		// indexes of uncommitted operations mapped to their result page paths
+		final Map<Integer, String> batch = new LinkedHashMap<>();
 
-		while (iterator.hasNext()) {
-			final Resource resource = iterator.next();
+		int batchCount = 0;
 
-			if (JcrConstants.JCR_CONTENT.equals(resource.getName())) {
-				final FoundationPage page = getPage(resource.getParent().getPath());
+		for (int index = 0; index < operations.size(); index++) {
+			final PageOperation operation = operations.get(index);
 
-				if (page != null) {
-					pages.add(page);
+			if (operation.getType() == PageOperation.Type.MOVE) {
+				// moves are saved immediately, so pending operations are committed first and the move is its own batch
+				if (!batch.isEmpty()) {
+					commit(batch, succeededPaths, failures);
+
+					batchCount++;
+				}
+
+				try {
+					succeededPaths.add(executeOperation(operation).getPath());
+				} catch (WCMException | RuntimeException e) {
+					LOG.error("error executing operation : " + operation, e);
+
+					failures.put(index, e.getMessage());
+
+					resourceResolver.revert();
+				}
+
+				batchCount++;
+
+				reportProgress(index + 1, operations.size(), succeededPaths.size(), failures.size(), stopwatch,
+						listener);
+			} else {
+				try {
+					batch.put(index, executeOperation(operation).getPath());
+				} catch (WCMException | RuntimeException e) {
+					LOG.error("error executing operation : " + operation, e);
+
+					failures.put(index, e.getMessage());
+
+					// discard partial changes of the failed operation, then replay the pending operations
+					resourceResolver.revert();
+					replay(operations, batch, failures);
+				}
+
+				if (batch.size() == batchSize || index == operations.size() - 1) {
+					commit(batch, succeededPaths, failures);
+
+					batchCount++;
+
+					reportProgress(index + 1, operations.size(), succeededPaths.size(), failures.size(), stopwatch,
+							listener);
 				}
 			}
 		}
 
-		LOG.debug("found {} result(s) in {}ms", pages.size(), stopwatch.elapsed(MILLISECONDS));
+		stopwatch.stop();
 
-		return pages;
+		return new DefaultBulkPageOperationResult(succeededPaths, failures, batchCount,
+				stopwatch.elapsed(MILLISECONDS));
+	}
+
+	@Override
+	public List<FoundationPage> findPages(final String rootPath, final Collection<String> tagIds,
+			final boolean matchOne) {
+		checkNotNull(rootPath);
+		checkNotNull(tagIds);
+
+		LOG.debug("path = {}, tag IDs = {}", rootPath, tagIds);
+
+		return admit(LimitedOperation.FIND_PAGES, "tags:" + rootPath + ":" + tagIds + ":" + matchOne,
+				() -> findPagesForTags(rootPath, tagIds, matchOne), null);
 	}
 
 	@Override
 	public List<FoundationPage> findPages(final String rootPath, final String templatePath) {
-		return findPages(rootPath, new TemplatePredicate(templatePath));
+		checkNotNull(rootPath);
+
+		final TemplatePredicate predicate = new TemplatePredicate(templatePath);
+
+		return admit(LimitedOperation.FIND_PAGES, "template:" + rootPath + ":" + templatePath,
+				() -> findPagesForPredicate(rootPath, predicate), () -> findChildPages(rootPath, predicate));
 	}
 
 	@Override
 	public List<FoundationPage> findPages(final String rootPath, final Predicate<FoundationPage> predicate) {
-		final Stopwatch stopwatch = Stopwatch.createStarted();
+		checkNotNull(rootPath);
+
+		return admit(LimitedOperation.FIND_PAGES, null, () -> findPagesForPredicate(rootPath, predicate),
+				() -> findChildPages(rootPath, predicate));
+	}
 
+	@Override
+	public TraversalResult<FoundationPage> findPages(final String rootPath, final Predicate<FoundationPage> predicate,
+			final Instant deadline) {
 		final FoundationPage page = getPage(checkNotNull(rootPath));
-		final List<FoundationPage> pages = page != null ? page.findDescendants(predicate) : Collections.emptyList();
 
-		stopwatch.stop();
+		return page != null ? page.findDescendants(predicate, deadline)
+				: new DefaultTraversalResult<>(Collections.emptyList(), false, 0);
+	}
 
-		LOG.debug("found {} result(s) in {}ms", pages.size(), stopwatch.elapsed(MILLISECONDS));
+	@Override
+	public TraversalResult<FoundationPage> findPages(final String rootPath, final Predicate<FoundationPage> predicate,
+			final int maxVisits) {
+		final FoundationPage page = getPage(checkNotNull(rootPath));
 
-		return pages;
+		return page != null ? page.findDescendants(predicate, maxVisits)
+				: new DefaultTraversalResult<>(Collections.emptyList(), false, 0);
+	}
+
+	@Override
+	public CompletableFuture<List<String>> findPagesAsync(final String rootPath,
+			final Collection<String> tagIds, final boolean matchOne) {
+		checkNotNull(rootPath);
+		checkNotNull(tagIds);
+
+		return submit(pageManager -> pageManager.findPages(rootPath, tagIds, matchOne));
+	}
+
+	@Override
+	public CompletableFuture<List<String>> findPagesAsync(final String rootPath, final String templatePath) {
+		checkNotNull(rootPath);
+
+		return submit(pageManager -> pageManager.findPages(rootPath, templatePath));
+	}
+
+	@Override
+	public CompletableFuture<List<String>> findPagesAsync(final String rootPath,
+			final Predicate<FoundationPage> predicate) {
+		checkNotNull(rootPath);
+		checkNotNull(predicate);
+
+		return submit(pageManager -> pageManager.findPages(rootPath, predicate));
 	}
 
 	@Override
@@ -145,6 +294,11 @@ public final class DefaultFoundationPageManager implements FoundationPageManager
 		return getPage(pageManager.getPage(path));
 	}
 
+	@Override
+	public List<FoundationPage> getPages(final Collection<String> paths) {
+		return checkNotNull(paths).stream().map(this::getPage).filter(Objects::nonNull).collect(Collectors.toList());
+	}
+
 	@Override
 	public FoundationPage move(final Page page, final String destination, final String beforeName,
 			final boolean shallow, final boolean resolveConflict, final String[] adjustRefs) throws WCMException {
@@ -180,47 +334,26 @@ public final class DefaultFoundationPageManager implements FoundationPageManager
 
 		LOG.debug("query statement = {}", query.getStatement());
 
-		final Stopwatch stopwatch = Stopwatch.createStarted();
-
-		final List<FoundationPage> pages = new ArrayList<>();
-
-		int count = 0;
-
-		try {
-			final Set<String> paths = new HashSet<>();
-
-			final RowIterator rows = query.execute().getRows();
-
-			while (rows.hasNext()) {
-				final String path = rows.nextRow().getPath();
-
-				if (limit == -1 || count < limit) {
-					LOG.debug("result path = {}", path);
-
-					final FoundationPage page = getContainingPage(path);
-
-					// ensure no duplicate pages are added
-					if (!paths.contains(page.getPath())) {
-						paths.add(page.getPath());
+		return admit(LimitedOperation.SEARCH, "query:" + query.getStatement() + ":" + limit,
+				() -> searchForQuery(query, limit), null);
+	}
 
-						if (page != null) {
-							pages.add(page);
-							count++;
-						} else {
-							LOG.error("result is null for path : {}", path);
-						}
-					}
-				}
-			}
+	@Override
+	public CompletableFuture<List<String>> searchAsync(final String statement, final String language) {
+		return searchAsync(statement, language, -1);
+	}
 
-			stopwatch.stop();
+	@Override
+	public CompletableFuture<List<String>> searchAsync(final String statement, final String language,
+			final int limit) {
+		checkNotNull(statement);
+		checkNotNull(language);
 
-			LOG.debug("found {} result(s) in {}ms", pages.size(), stopwatch.elapsed(MILLISECONDS));
-		} catch (RepositoryException re) {
-			LOG.error("error finding pages for query : " + query.getStatement(), re);
-		}
+		return submit(pageManager -> {
+			final Query query = pageManager.createQuery(statement, language);
 
-		return pages;
+			return query == null ? Collections.emptyList() : pageManager.search(query, limit);
+		});
 	}
 
 	// delegate methods
@@ -357,4 +490,296 @@ public final class DefaultFoundationPageManager implements FoundationPageManager
 	public void touch(final Node node, final boolean b, final Calendar calendar, final boolean b1) throws WCMException {
 		pageManager.touch(node, b, calendar, b1);
 	}
+
+	/**
+	 * @return admission controller for pages of this manager, or null
+	 */
+	AdmissionController getAdmissionController() {
+		return admissionController;
+	}
+
+	/**
+	 * @return vanity path index for pages of this manager, or null
+	 */
+	VanityIndex getVanityIndex() {
+		return vanityIndex;
+	}
+
+	// internals
+
+	private void commit(final Map<Integer, String> batch, final List<String> succeededPaths,
+			final Map<Integer, String> failures) {
+		try {
+			if (resourceResolver.hasChanges()) {
+				resourceResolver.commit();
+			}
+
+			succeededPaths.addAll(batch.values());
+		} catch (PersistenceException e) {
+			LOG.error("error committing batch, reverting " + batch.size() + " operation(s)", e);
+
+			resourceResolver.revert();
+
+			batch.keySet().forEach(index -> failures.put(index, "commit failed : " + e.getMessage()));
+		}
+
+		batch.clear();
+	}
+
+	/**
+	 * Re-execute the pending operations of a batch after the session was
+	 * reverted. An operation that fails during the replay is recorded as failed
+	 * and removed from the batch, and the replay restarts from a reverted session.
+	 */
+	private void replay(final List<PageOperation> operations, final Map<Integer, String> batch,
+			final Map<Integer, String> failures) {
+		boolean replayed = false;
+
+		while (!replayed) {
+			replayed = true;
+
+			final Iterator<Map.Entry<Integer, String>> iterator = batch.entrySet().iterator();
+
+			while (replayed && iterator.hasNext()) {
+				final Map.Entry<Integer, String> entry = iterator.next();
+				final PageOperation operation = operations.get(entry.getKey());
+
+				try {
+					entry.setValue(executeOperation(operation).getPath());
+				} catch (WCMException | RuntimeException e) {
+					LOG.error("error replaying operation : " + operation, e);
+
+					failures.put(entry.getKey(), e.getMessage());
+					iterator.remove();
+
+					resourceResolver.revert();
+
+					replayed = false;
+				}
+			}
+		}
+	}
+
+	private static void reportProgress(final int processed, final int total, final int succeeded, final int failed,
+			final Stopwatch stopwatch, final BulkProgressListener listener) {
+		final double pagesPerSecond = succeeded * 1000d / Math.max(1, stopwatch.elapsed(MILLISECONDS));
+
+		LOG.info("processed {} of {} operation(s), {} failure(s), {} pages/s", processed, total, failed,
+				String.format("%.1f", pagesPerSecond));
+
+		if (listener != null) {
+			listener.onProgress(processed, total, pagesPerSecond);
+		}
+	}
+
+	private Page executeOperation(final PageOperation operation) throws WCMException {
+		final Page page;
+
+		if (operation.getType() == PageOperation.Type.CREATE) {
+			page = pageManager.create(operation.getPath(), operation.getName(), operation.getTemplate(),
+					operation.getTitle(), false);
+		} else {
+			final Page source = pageManager.getPage(operation.getPath());
+
+			if (source == null) {
+				throw new WCMException("page not found : " + operation.getPath());
+			}
+
+			if (operation.getType() == PageOperation.Type.COPY) {
+				page = pageManager.copy(source, operation.getDestination(), operation.getBeforeName(),
+						operation.isShallow(), operation.isResolveConflict(), false);
+			} else {
+				page = pageManager.move(source, operation.getDestination(), operation.getBeforeName(),
+						operation.isShallow(), operation.isResolveConflict(), null);
+			}
+		}
+
+		return page;
+	}
+
+	/**
+	 * Execute a search, subject to admission control if an admission controller is
+	 * available. If the search is rejected, the most recent result for the cache
+	 * key is returned if present, otherwise the partial result. If neither is
+	 * available, the rejection is thrown rather than returning an empty list that
+	 * is indistinguishable from a search without results.
+	 *
+	 * @param operation operation type
+	 * @param cacheKey  key for caching result paths, or null if the result should
+	 *                  not be cached
+	 * @param search    search to execute
+	 * @param partial   supplier of a partial result if the search is rejected, or
+	 *                  null if there is no partial result
+	 * @return pages
+	 * @throws AdmissionRejectedException if the search is rejected and no recent
+	 *                                    or partial result is available
+	 */
+	private List<FoundationPage> admit(final LimitedOperation operation, final String cacheKey,
+			final Supplier<List<FoundationPage>> search, final Supplier<List<FoundationPage>> partial) {
+		final List<FoundationPage> pages;
+
+		if (admissionController == null) {
+			pages = search.get();
+		} else {
+			pages = admissionController.execute(operation, () -> {
+				final List<FoundationPage> result = search.get();
+
+				if (cacheKey != null && recentResults != null) {
+					recentResults.put(resourceResolver, cacheKey, getPaths(result));
+				}
+
+				return result;
+			}, () -> {
+				final List<String> paths = cacheKey == null || recentResults == null ? null
+						: recentResults.getIfPresent(resourceResolver, cacheKey);
+
+				LOG.debug("returning degraded result for operation = {}, cached = {}", operation, paths != null);
+
+				if (paths == null && partial == null) {
+					throw new AdmissionRejectedException(operation);
+				}
+
+				return paths == null ? partial.get() : getPages(paths);
+			});
+		}
+
+		return pages;
+	}
+
+	private List<FoundationPage> findChildPages(final String rootPath, final Predicate<FoundationPage> predicate) {
+		final FoundationPage page = getPage(rootPath);
+
+		return page != null ? page.getChildren(predicate) : Collections.emptyList();
+	}
+
+	private List<FoundationPage> findPagesForPredicate(final String rootPath,
+			final Predicate<FoundationPage> predicate) {
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final FoundationPage page = getPage(rootPath);
+		final List<FoundationPage> pages = page != null ? page.findDescendants(predicate) : Collections.emptyList();
+
+		stopwatch.stop();
+
+		LOG.debug("found {} result(s) in {}ms", pages.size(), stopwatch.elapsed(MILLISECONDS));
+
+		return pages;
+	}
+
+	private List<FoundationPage> findPagesForTags(final String rootPath, final Collection<String> tagIds,
+			final boolean matchOne) {
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final RangeIterator<Resource> iterator = resourceResolver.adaptTo(TagManager.class).find(rootPath,
+				tagIds.toArray(new String[0]), matchOne);
+
+		final List<FoundationPage> pages = new ArrayList<>();
+
+		while (iterator.hasNext()) {
+			final Resource resource = iterator.next();
+
+			if (JcrConstants.JCR_CONTENT.equals(resource.getName())) {
+				final FoundationPage page = getPage(resource.getParent().getPath());
+
+				if (page != null) {
+					pages.add(page);
+				}
+			}
+		}
+
+		LOG.debug("found {} result(s) in {}ms", pages.size(), stopwatch.elapsed(MILLISECONDS));
+
+		return pages;
+	}
+
+	private List<FoundationPage> searchForQuery(final Query query, final int limit) {
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final List<FoundationPage> pages = new ArrayList<>();
+
+		int count = 0;
+
+		try {
+			final Set<String> paths = new HashSet<>();
+
+			final RowIterator rows = query.execute().getRows();
+
+			while (rows.hasNext()) {
+				final String path = rows.nextRow().getPath();
+
+				if (limit == -1 || count < limit) {
+					LOG.debug("result path = {}", path);
+
+					final FoundationPage page = getContainingPage(path);
+
+					// ensure no duplicate pages are added
+					if (!paths.contains(page.getPath())) {
+						paths.add(page.getPath());
+
+						if (page != null) {
+							pages.add(page);
+							count++;
+						} else {
+							LOG.error("result is null for path : {}", path);
+						}
+					}
+				}
+			}
+
+			stopwatch.stop();
+
+			LOG.debug("found {} result(s) in {}ms", pages.size(), stopwatch.elapsed(MILLISECONDS));
+		} catch (RepositoryException re) {
+			LOG.error("error finding pages for query : " + query.getStatement(), re);
+		}
+
+		return pages;
+	}
+
+	private Query createQuery(final String statement, final String language) {
+		Query query = null;
+
+		try {
+			query = resourceResolver.adaptTo(Session.class).getWorkspace().getQueryManager().createQuery(statement,
+					language);
+		} catch (RepositoryException re) {
+			LOG.error("error creating query for statement : " + statement, re);
+		}
+
+		return query;
+	}
+
+	/**
+	 * Run the search with a service resource resolver if an executor is available.
+	 * Only the page paths are passed back from the executor thread, since the
+	 * resource resolver for this page manager must not be used concurrently from
+	 * another thread.
+	 *
+	 * @param search search to execute
+	 * @return future containing result page paths
+	 */
+	private CompletableFuture<List<String>> submit(
+			final Function<DefaultFoundationPageManager, List<FoundationPage>> search) {
+		final CompletableFuture<List<String>> future;
+
+		if (executor == null) {
+			future = new CompletableFuture<>();
+
+			try {
+				future.complete(getPaths(search.apply(this)));
+			} catch (RuntimeException e) {
+				future.completeExceptionally(e);
+			}
+		} else {
+			future = executor.submit(serviceResourceResolver -> getPaths(search.apply(
+					new DefaultFoundationPageManager(serviceResourceResolver, null, admissionController, vanityIndex,
+							recentResults))));
+		}
+
+		return future;
+	}
+
+	private static List<String> getPaths(final List<FoundationPage> pages) {
+		return pages.stream().map(FoundationPage::getPath).collect(Collectors.toList());
+	}
 }
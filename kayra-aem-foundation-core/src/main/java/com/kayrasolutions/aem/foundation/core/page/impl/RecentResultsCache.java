@@ -0,0 +1,101 @@
+package com.kayrasolutions.aem.foundation.core.page.impl;
+
+import java.util.List;
+
+import org.apache.sling.api.resource.ResourceResolver;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.propertytypes.ServiceDescription;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.kayrasolutions.aem.foundation.core.cache.PrincipalScopedCache;
+
+/**
+ * Paths of recent page search results, used as a degraded result when a search
+ * is rejected by the admission controller. Results are scoped to the principals
+ * of the user that executed the search, and paths are resolved with the current
+ * resource resolver, so cached results never expose unreadable pages.
+ */
+@Component(service = RecentResultsCache.class)
+@Designate(ocd = RecentResultsCache.Configuration.class)
+@ServiceDescription("Kayra Solutions Recent Search Results Cache")
+public final class RecentResultsCache {
+
+	@ObjectClassDefinition(name = "Kayra Solutions Recent Search Results Cache")
+	public @interface Configuration {
+
+		@AttributeDefinition(name = "Enabled", description = "If true, recent search results are returned when a "
+				+ "search is rejected by the admission controller.")
+		boolean enabled() default true;
+
+		@AttributeDefinition(name = "Maximum Size", description = "Maximum number of cached search results, across "
+				+ "all principal sets.")
+		long maximumSize() default 256;
+
+		@AttributeDefinition(name = "Expiry Seconds", description = "Number of seconds after which a cached search "
+				+ "result expires.")
+		long expirySeconds() default 300;
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(RecentResultsCache.class);
+
+	private volatile PrincipalScopedCache<String, List<String>> cache;
+
+	@Activate
+	@Modified
+	protected void activate(final Configuration configuration) {
+		if (configuration.enabled()) {
+			cache = PrincipalScopedCache.create(configuration.maximumSize(), configuration.expirySeconds());
+
+			LOG.info("enabled recent search results cache with maximum size = {}, expiry seconds = {}",
+					configuration.maximumSize(), configuration.expirySeconds());
+		} else {
+			cache = null;
+
+			LOG.info("disabled recent search results cache");
+		}
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		final PrincipalScopedCache<String, List<String>> current = cache;
+
+		cache = null;
+
+		if (current != null) {
+			current.invalidateAll();
+		}
+	}
+
+	/**
+	 * @param resourceResolver resource resolver of the user that executed the
+	 *                         search
+	 * @param key              search key
+	 * @param paths            result page paths
+	 */
+	void put(final ResourceResolver resourceResolver, final String key, final List<String> paths) {
+		final PrincipalScopedCache<String, List<String>> current = cache;
+
+		if (current != null) {
+			current.put(resourceResolver, key, paths);
+		}
+	}
+
+	/**
+	 * @param resourceResolver resource resolver of the current user
+	 * @param key              search key
+	 * @return result page paths for the principal set of the user, or null if
+	 *         not present or the cache is disabled
+	 */
+	List<String> getIfPresent(final ResourceResolver resourceResolver, final String key) {
+		final PrincipalScopedCache<String, List<String>> current = cache;
+
+		return current == null ? null : current.getIfPresent(resourceResolver, key);
+	}
+}
@@ -2,6 +2,7 @@ package com.kayrasolutions.aem.foundation.core.resource;
 
 import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
@@ -11,6 +12,7 @@ import org.apache.sling.api.resource.ValueMap;
 
 import com.day.cq.tagging.Tag;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.kayrasolutions.aem.foundation.api.TraversalResult;
 import com.kayrasolutions.aem.foundation.api.link.Link;
 import com.kayrasolutions.aem.foundation.api.link.builders.LinkBuilder;
 import com.kayrasolutions.aem.foundation.api.page.FoundationPage;
@@ -74,6 +76,18 @@ public abstract class DelegateComponentResource implements ComponentResource {
 		return componentResource.findDescendants(predicate);
 	}
 
+	@Override
+	public final TraversalResult<ComponentResource> findDescendants(final Predicate<ComponentResource> predicate,
+			final Instant deadline) {
+		return componentResource.findDescendants(predicate, deadline);
+	}
+
+	@Override
+	public final TraversalResult<ComponentResource> findDescendants(final Predicate<ComponentResource> predicate,
+			final int maxVisits) {
+		return componentResource.findDescendants(predicate, maxVisits);
+	}
+
 	@Override
 	public final <T> T get(final String propertyName, final T defaultValue) {
 		return componentResource.get(propertyName, defaultValue);
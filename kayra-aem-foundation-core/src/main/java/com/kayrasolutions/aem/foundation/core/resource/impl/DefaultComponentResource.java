@@ -2,9 +2,13 @@ package com.kayrasolutions.aem.foundation.core.resource.impl;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
@@ -37,14 +41,19 @@ import com.google.common.base.Objects;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.ObjectArrays;
+import com.kayrasolutions.aem.foundation.api.TraversalResult;
 import com.kayrasolutions.aem.foundation.api.link.Link;
 import com.kayrasolutions.aem.foundation.api.link.builders.LinkBuilder;
 import com.kayrasolutions.aem.foundation.api.page.FoundationPage;
 import com.kayrasolutions.aem.foundation.api.page.FoundationPageManager;
 import com.kayrasolutions.aem.foundation.api.resource.ComponentResource;
 import com.kayrasolutions.aem.foundation.core.link.builders.factory.LinkBuilderFactory;
+import com.kayrasolutions.aem.foundation.core.link.builders.impl.DefaultLinkBuilder;
+import com.kayrasolutions.aem.foundation.core.link.impl.PathClassification;
+import com.kayrasolutions.aem.foundation.core.link.impl.ResourceMappingCache;
 import com.kayrasolutions.aem.foundation.core.resource.predicates.ComponentResourcePropertyExistsPredicate;
 import com.kayrasolutions.aem.foundation.core.resource.predicates.ComponentResourcePropertyValuePredicate;
+import com.kayrasolutions.aem.foundation.core.traversal.TraversalBudget;
 import com.kayrasolutions.aem.foundation.core.utils.PathUtils;
 
 @Model(adaptables = Resource.class, adapters = ComponentResource.class)
@@ -216,7 +225,7 @@ public final class DefaultComponentResource implements ComponentResource {
 			}
 		}
 
-		return path.substring(1).replaceAll("/", "-");
+		return path.substring(1).replace('/', '-');
 	}
 
 	@Override
@@ -328,6 +337,18 @@ public final class DefaultComponentResource implements ComponentResource {
 		return descendantComponentResources;
 	}
 
+	@Override
+	public TraversalResult<ComponentResource> findDescendants(final Predicate<ComponentResource> predicate,
+			final Instant deadline) {
+		return findDescendantsForBudget(checkNotNull(predicate), TraversalBudget.forDeadline(checkNotNull(deadline)));
+	}
+
+	@Override
+	public TraversalResult<ComponentResource> findDescendants(final Predicate<ComponentResource> predicate,
+			final int maxVisits) {
+		return findDescendantsForBudget(checkNotNull(predicate), TraversalBudget.forMaxVisits(maxVisits));
+	}
+
 	@Override
 	public Optional<ComponentResource> findAncestorWithProperty(final String propertyName) {
 		return findAncestorForPredicate(new ComponentResourcePropertyExistsPredicate(propertyName), false);
@@ -548,21 +569,38 @@ public final class DefaultComponentResource implements ComponentResource {
 			final boolean mapped) {
 		return pathOptional.map(path -> {
 			final ResourceResolver resourceResolver = resource.getResourceResolver();
-			final Resource resource = resourceResolver.getResource(path);
+
+			// resolution (mappings, vanity paths, and aliases) is only needed to classify external links when strict,
+			// so that a single memoized resolution determines both the resource and external checks
+			final PathClassification classification = strict ? PathClassification.classify(resourceResolver, path)
+					: null;
+
+			final String resourcePath;
+
+			if (classification == null) {
+				final Resource linkedResource = resourceResolver.getResource(path);
+
+				resourcePath = linkedResource == null ? null : linkedResource.getPath();
+			} else {
+				resourcePath = classification.getType() == PathClassification.Type.RESOURCE
+						? classification.getResolvedPath() : null;
+			}
 
 			final LinkBuilder linkBuilder;
 
-			if (resource != null) {
+			if (resourcePath != null) {
 				// internal link
-				linkBuilder = LinkBuilderFactory.forResource(resource, mapped);
+				linkBuilder = new DefaultLinkBuilder(resourcePath, mapped ? resourceResolver : null);
 			} else {
 				// external link
-				final String mappedPath = mapped ? resourceResolver.map(path) : path;
+				final String mappedPath = mapped ? ResourceMappingCache.map(resourceResolver, null, null, path) : path;
 
 				linkBuilder = LinkBuilderFactory.forPath(mappedPath);
 
 				if (strict) {
-					linkBuilder.setExternal(PathUtils.isExternal(mappedPath, resourceResolver));
+					linkBuilder.setExternal(mappedPath.equals(path)
+							? classification.getType() == PathClassification.Type.EXTERNAL
+							: PathUtils.isExternal(mappedPath, resourceResolver));
 				}
 			}
 
@@ -570,6 +608,37 @@ public final class DefaultComponentResource implements ComponentResource {
 		});
 	}
 
+	private TraversalResult<ComponentResource> findDescendantsForBudget(final Predicate<ComponentResource> predicate,
+			final TraversalBudget budget) {
+		final List<ComponentResource> descendantComponentResources = new ArrayList<>();
+
+		// depth-first, in the same order as the unbounded traversal
+		final Deque<Iterator<Resource>> iterators = new ArrayDeque<>();
+
+		iterators.push(resource.listChildren());
+
+		while (!iterators.isEmpty()) {
+			final Iterator<Resource> iterator = iterators.peek();
+
+			if (!iterator.hasNext()) {
+				iterators.pop();
+			} else if (budget.visit()) {
+				final Resource child = iterator.next();
+				final ComponentResource componentResource = TO_COMPONENT_RESOURCE.apply(child);
+
+				if (predicate.test(componentResource)) {
+					descendantComponentResources.add(componentResource);
+				}
+
+				iterators.push(child.listChildren());
+			} else {
+				break;
+			}
+		}
+
+		return budget.toResult(descendantComponentResources);
+	}
+
 	private int getIndexForPredicate(final Predicate<Resource> resourceTypePredicate) {
 		final List<Resource> resources = Lists.newArrayList(resource.getParent().getChildren()).stream()
 				.filter(resourceTypePredicate).collect(Collectors.toList());
@@ -1,9 +1,22 @@
 package com.kayrasolutions.aem.foundation.core.servlets;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.sling.api.SlingHttpServletRequest;
 import org.apache.sling.api.SlingHttpServletResponse;
 import org.apache.sling.api.servlets.SlingAllMethodsServlet;
 import org.slf4j.Logger;
@@ -12,11 +25,21 @@ import org.slf4j.LoggerFactory;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonGenerator.Feature;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.net.HttpHeaders;
 import com.google.common.net.MediaType;
+import com.kayrasolutions.aem.foundation.core.cache.PrincipalFingerprint;
+import com.kayrasolutions.aem.foundation.core.servlets.impl.ResponseFormat;
 
 /**
- * Base servlet for writing a JSON response.
+ * Base servlet for writing a JSON response. Object writers are created once per
+ * date format and locale and shared across requests. Subclasses may provide a
+ * content fingerprint and last modified time to support conditional requests.
  */
 public abstract class AbstractJsonResponseServlet extends SlingAllMethodsServlet {
 
@@ -32,8 +55,24 @@ public abstract class AbstractJsonResponseServlet extends SlingAllMethodsServlet
 
 	private static final String CONTENT_TYPE = MEDIA_TYPE.withoutParameters().toString();
 
+	private static final String CONTENT_TYPE_NDJSON = "application/x-ndjson";
+
+	private static final int DEFAULT_FLUSH_INTERVAL = 100;
+
+	private static final String GZIP_ENTITY_TAG_SUFFIX = "-gzip";
+
+	private static final String ATTRIBUTE_PARTIAL = AbstractJsonResponseServlet.class.getName() + ".partial";
+
+	private static final String CACHE_CONTROL_NO_STORE = "no-store";
+
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
 	private static final long serialVersionUID = 1L;
 
+	private final transient Map<String, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+	private transient volatile ObjectMapper mapper;
+
 	/**
 	 * Write an object to the response as JSON.
 	 *
@@ -71,9 +110,7 @@ public abstract class AbstractJsonResponseServlet extends SlingAllMethodsServlet
 	 */
 	protected final void writeJsonResponse(final SlingHttpServletResponse response, final Object object,
 			final String dateFormat, final Locale locale) throws IOException {
-		final SimpleDateFormat format = new SimpleDateFormat(dateFormat, locale);
-
-		writeJsonResponse(response, new ObjectMapper().setDateFormat(format), object);
+		writeJsonResponse(response, getWriter(dateFormat, locale), object);
 	}
 
 	/**
@@ -87,17 +124,580 @@ public abstract class AbstractJsonResponseServlet extends SlingAllMethodsServlet
 	 */
 	protected final void writeJsonResponse(final SlingHttpServletResponse response, final ObjectMapper mapper,
 			final Object object) throws IOException {
+		writeJsonResponse(response, mapper.writer(), object);
+	}
+
+	/**
+	 * Write an object to the response as JSON using the given
+	 * <code>ObjectWriter</code> instance.
+	 *
+	 * @param response Sling response
+	 * @param writer   object writer with a custom configuration
+	 * @param object   object to be written as JSON
+	 * @throws IOException if error occurs writing JSON response
+	 */
+	protected final void writeJsonResponse(final SlingHttpServletResponse response, final ObjectWriter writer,
+			final Object object) throws IOException {
 		response.setContentType(CONTENT_TYPE);
 		response.setCharacterEncoding(ENCODING);
 
 		try {
 			final JsonGenerator generator = FACTORY.createGenerator(response.getWriter());
 
-			mapper.writeValue(generator, object);
+			writer.writeValue(generator, object);
 		} catch (IOException e) {
 			LOG.error("error writing JSON response", e);
 
 			throw e;
 		}
 	}
+
+	/**
+	 * Write elements to the response as a JSON array, serializing each element as
+	 * it is produced rather than materializing the full list. The response is
+	 * flushed periodically according to the flush interval. If producing or
+	 * serializing an element fails, the array is left unterminated so that
+	 * clients can detect the truncated response.
+	 *
+	 * @param response Sling response
+	 * @param elements elements to be written as JSON array items
+	 * @throws IOException if error occurs writing JSON response
+	 */
+	protected final void writeJsonResponse(final SlingHttpServletResponse response, final Iterator<?> elements)
+			throws IOException {
+		writeElements(response, elements, false);
+	}
+
+	/**
+	 * Write elements to the response as a JSON array, serializing each element as
+	 * it is produced rather than materializing the full list. The stream is closed
+	 * after all elements have been written.
+	 *
+	 * @param response Sling response
+	 * @param elements elements to be written as JSON array items
+	 * @throws IOException if error occurs writing JSON response
+	 */
+	protected final void writeJsonResponse(final SlingHttpServletResponse response, final Stream<?> elements)
+			throws IOException {
+		try (final Stream<?> stream = elements) {
+			writeElements(response, stream.iterator(), false);
+		}
+	}
+
+	/**
+	 * Write elements to the response as newline-delimited JSON (one JSON value per
+	 * line), serializing each element as it is produced.
+	 *
+	 * @param response Sling response
+	 * @param elements elements to be written as JSON lines
+	 * @throws IOException if error occurs writing JSON response
+	 */
+	protected final void writeNdjsonResponse(final SlingHttpServletResponse response, final Iterator<?> elements)
+			throws IOException {
+		writeElements(response, elements, true);
+	}
+
+	/**
+	 * Write elements to the response as newline-delimited JSON (one JSON value per
+	 * line), serializing each element as it is produced. The stream is closed
+	 * after all elements have been written.
+	 *
+	 * @param response Sling response
+	 * @param elements elements to be written as JSON lines
+	 * @throws IOException if error occurs writing JSON response
+	 */
+	protected final void writeNdjsonResponse(final SlingHttpServletResponse response, final Stream<?> elements)
+			throws IOException {
+		try (final Stream<?> stream = elements) {
+			writeElements(response, stream.iterator(), true);
+		}
+	}
+
+	/**
+	 * Write an object to the response as JSON with a strong entity tag, responding
+	 * with <code>304 Not Modified</code> if the request is conditional and the
+	 * content has not changed. If the servlet provides a fingerprint for the
+	 * request, the fingerprint is checked before the supplier is called; otherwise
+	 * the entity tag is computed from the encoded response. Clients may request
+	 * the Smile or CBOR binary format using the <code>Accept</code> header; the
+	 * object is serialized with the same object writer in either case. If the
+	 * supplier marks the response as partial, it is written without validators
+	 * and must not be stored by clients.
+	 *
+	 * @param request  Sling request
+	 * @param response Sling response
+	 * @param supplier supplier of the object to be written as JSON
+	 * @throws IOException if error occurs writing JSON response
+	 */
+	protected final void writeJsonResponse(final SlingHttpServletRequest request,
+			final SlingHttpServletResponse response, final Supplier<?> supplier) throws IOException {
+		final ResponseFormat format = ResponseFormat.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+		final long lastModified = getLastModified(request);
+		final String fingerprintTag = getFingerprintTag(request);
+		final String formatFingerprintTag = fingerprintTag == null || format == ResponseFormat.JSON ? fingerprintTag
+				: fingerprintTag + "-" + format.name().toLowerCase(Locale.US);
+
+		addVary(response, HttpHeaders.ACCEPT);
+
+		// the validators are only set once the response is known to be complete
+		if (matchesConditions(request, formatFingerprintTag, lastModified)) {
+			isNotModified(request, response, formatFingerprintTag, lastModified);
+		} else {
+			final byte[] bytes = encode(supplier.get(), format);
+
+			if (isPartial(request)) {
+				response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL_NO_STORE);
+
+				writeEncodedResponse(response, bytes, format, false);
+			} else if (!isNotModified(request, response,
+					fingerprintTag == null ? getEntityTag(bytes) : formatFingerprintTag, lastModified)) {
+				writeEncodedResponse(response, bytes, format, false);
+			}
+		}
+	}
+
+	/**
+	 * Mark the response for this request as partial, e.g. because a source of its
+	 * content failed or timed out. Partial responses are not cached, and are
+	 * written without an entity tag or last modified time so that they are
+	 * never revalidated.
+	 *
+	 * @param request Sling request
+	 */
+	protected final void setPartial(final SlingHttpServletRequest request) {
+		request.setAttribute(ATTRIBUTE_PARTIAL, Boolean.TRUE);
+	}
+
+	/**
+	 * @param request Sling request
+	 * @return true if the response for this request has been marked as partial
+	 */
+	protected final boolean isPartial(final SlingHttpServletRequest request) {
+		return Boolean.TRUE.equals(request.getAttribute(ATTRIBUTE_PARTIAL));
+	}
+
+	/**
+	 * @param request Sling request
+	 * @return true if the request accepts the gzip content coding
+	 */
+	protected final boolean acceptsGzip(final SlingHttpServletRequest request) {
+		final String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+
+		boolean accepts = false;
+
+		if (acceptEncoding != null) {
+			for (final String coding : acceptEncoding.split(",")) {
+				final String[] parts = coding.trim().split(";");
+
+				if ("gzip".equalsIgnoreCase(parts[0].trim())) {
+					accepts = parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+				}
+			}
+		}
+
+		return accepts;
+	}
+
+	/**
+	 * @param request Sling request
+	 * @return true if the request prefers a binary format (Smile or CBOR) over
+	 *         JSON and the format is available
+	 */
+	protected final boolean acceptsBinaryFormat(final SlingHttpServletRequest request) {
+		return ResponseFormat.negotiate(request.getHeader(HttpHeaders.ACCEPT)) != ResponseFormat.JSON;
+	}
+
+	/**
+	 * Get a cheap fingerprint of the content for this request (e.g. a revision
+	 * number or the last modified date of the source resources), allowing
+	 * conditional requests to be answered without building the response. The
+	 * fingerprint must change whenever the response would change.
+	 *
+	 * @param request Sling request
+	 * @return optional content fingerprint, absent if the entity tag should be
+	 *         computed from the encoded response
+	 */
+	protected Optional<String> getFingerprint(final SlingHttpServletRequest request) {
+		return Optional.empty();
+	}
+
+	/**
+	 * Get the last modified time of the content for this request, used to set the
+	 * <code>Last-Modified</code> header and to evaluate
+	 * <code>If-Modified-Since</code>.
+	 *
+	 * @param request Sling request
+	 * @return last modified time in milliseconds, or -1 if unknown
+	 */
+	protected long getLastModified(final SlingHttpServletRequest request) {
+		return -1;
+	}
+
+	/**
+	 * Override this method if the response depends on the access rights of the
+	 * current user. Fingerprints and cached responses are then scoped to the
+	 * user's effective group principals (see <code>PrincipalFingerprint</code>).
+	 *
+	 * @param request Sling request
+	 * @return true if the response depends on the access rights of the user
+	 */
+	protected boolean isPrincipalScoped(final SlingHttpServletRequest request) {
+		return false;
+	}
+
+	/**
+	 * Get the entity tag derived from the fingerprint and query string for this
+	 * request, and from the principal fingerprint if the response is principal
+	 * scoped.
+	 *
+	 * @param request Sling request
+	 * @return entity tag, or null if the servlet does not provide a fingerprint
+	 */
+	protected final String getFingerprintTag(final SlingHttpServletRequest request) {
+		final Optional<String> fingerprint = getFingerprint(request);
+
+		String fingerprintTag = null;
+
+		if (fingerprint.isPresent()) {
+			final StringBuilder builder = new StringBuilder(getClass().getName()).append('|')
+					.append(fingerprint.get()).append('|').append(request.getQueryString());
+
+			if (isPrincipalScoped(request)) {
+				builder.append('|').append(PrincipalFingerprint.get(request.getResourceResolver()));
+			}
+
+			fingerprintTag = HASH_FUNCTION.hashString(builder, StandardCharsets.UTF_8).toString();
+		}
+
+		return fingerprintTag;
+	}
+
+	/**
+	 * Get the entity tag for encoded JSON.
+	 *
+	 * @param json encoded JSON
+	 * @return entity tag
+	 */
+	protected final String getEntityTag(final byte[] json) {
+		return HASH_FUNCTION.hashBytes(json).toString();
+	}
+
+	/**
+	 * Get the entity tag of a representation with the given content coding. The
+	 * gzip-compressed representation requires a distinct strong entity tag, which
+	 * must also be sent with <code>304 Not Modified</code> responses to requests
+	 * accepting gzip.
+	 *
+	 * @param entityTag unquoted entity tag of the uncompressed representation, or
+	 *                  null if unknown
+	 * @param gzip      if true, get the entity tag of the gzip-compressed
+	 *                  representation
+	 * @return unquoted entity tag, or null if unknown
+	 */
+	protected final String getEntityTag(final String entityTag, final boolean gzip) {
+		return entityTag == null || !gzip ? entityTag : entityTag + GZIP_ENTITY_TAG_SUFFIX;
+	}
+
+	/**
+	 * Set the validator headers for the response and evaluate the conditional
+	 * headers of the request. <code>If-None-Match</code> takes precedence over
+	 * <code>If-Modified-Since</code>. If the content has not been modified, the
+	 * response status is set to <code>304 Not Modified</code>.
+	 *
+	 * @param request      Sling request
+	 * @param response     Sling response
+	 * @param entityTag    unquoted entity tag, or null if unknown
+	 * @param lastModified last modified time in milliseconds, or -1 if unknown
+	 * @return true if the content has not been modified and no response body
+	 *         should be written
+	 */
+	protected final boolean isNotModified(final SlingHttpServletRequest request,
+			final SlingHttpServletResponse response, final String entityTag, final long lastModified) {
+		if (entityTag != null) {
+			response.setHeader(HttpHeaders.ETAG, "\"" + entityTag + "\"");
+		}
+
+		if (lastModified >= 0) {
+			response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+		}
+
+		final boolean notModified = matchesConditions(request, entityTag, lastModified);
+
+		if (notModified) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+		}
+
+		return notModified;
+	}
+
+	/**
+	 * Add a request header to the <code>Vary</code> header of the response, unless
+	 * it is already present. Responses that may be answered with <code>304 Not
+	 * Modified</code> must vary on the same headers as the full response, so the
+	 * header should be added before the conditional headers are evaluated.
+	 *
+	 * @param response   Sling response
+	 * @param headerName name of the request header the response varies on
+	 */
+	protected final void addVary(final SlingHttpServletResponse response, final String headerName) {
+		boolean present = false;
+
+		for (final String vary : response.getHeaders(HttpHeaders.VARY)) {
+			for (final String value : vary.split(",")) {
+				present = present || headerName.equalsIgnoreCase(value.trim());
+			}
+		}
+
+		if (!present) {
+			response.addHeader(HttpHeaders.VARY, headerName);
+		}
+	}
+
+	/**
+	 * Evaluate the conditional headers of the request without setting any
+	 * response headers. <code>If-None-Match</code> takes precedence over
+	 * <code>If-Modified-Since</code>.
+	 *
+	 * @param request      Sling request
+	 * @param entityTag    unquoted entity tag, or null if unknown
+	 * @param lastModified last modified time in milliseconds, or -1 if unknown
+	 * @return true if the content has not been modified
+	 */
+	protected final boolean matchesConditions(final SlingHttpServletRequest request, final String entityTag,
+			final long lastModified) {
+		final String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+
+		final boolean matches;
+
+		if (ifNoneMatch != null) {
+			matches = entityTag != null && matches(ifNoneMatch, entityTag);
+		} else {
+			// HTTP dates have second precision
+			matches = lastModified >= 0 && getIfModifiedSince(request) >= lastModified / 1000 * 1000;
+		}
+
+		return matches;
+	}
+
+	/**
+	 * Encode an object as UTF-8 JSON using the default date format.
+	 *
+	 * @param object object to be encoded as JSON
+	 * @return encoded JSON
+	 * @throws IOException if error occurs encoding the object
+	 */
+	protected final byte[] encodeJson(final Object object) throws IOException {
+		return getWriter(DEFAULT_DATE_FORMAT, Locale.US).writeValueAsBytes(object);
+	}
+
+	/**
+	 * Write previously encoded JSON to the response. If the content coding is
+	 * chosen from the <code>Accept-Encoding</code> header, callers should add it
+	 * to the <code>Vary</code> header with <code>addVary</code> before evaluating
+	 * conditional headers, so that uncompressed and <code>304 Not
+	 * Modified</code> responses vary on it as well.
+	 *
+	 * @param response Sling response
+	 * @param json     UTF-8 encoded JSON, gzip-compressed if <code>gzip</code> is
+	 *                 true
+	 * @param gzip     if true, the response is written with gzip content encoding
+	 * @throws IOException if error occurs writing JSON response
+	 */
+	protected final void writeEncodedJsonResponse(final SlingHttpServletResponse response, final byte[] json,
+			final boolean gzip) throws IOException {
+		writeEncodedResponse(response, json, ResponseFormat.JSON, gzip);
+	}
+
+	/**
+	 * Get the number of elements written between flushes of the response when
+	 * streaming elements.
+	 *
+	 * @return flush interval
+	 */
+	protected int getFlushInterval() {
+		return DEFAULT_FLUSH_INTERVAL;
+	}
+
+	/**
+	 * Get the shared object writer for a date format and locale. Writers are
+	 * immutable and safe to use concurrently; the date format is copied by Jackson
+	 * for each serialization.
+	 *
+	 * @param dateFormat SimpleDateFormat pattern for formatting Date objects
+	 * @param locale     locale for date format
+	 * @return object writer
+	 */
+	protected final ObjectWriter getWriter(final String dateFormat, final Locale locale) {
+		return writers.computeIfAbsent(dateFormat + "|" + locale.toLanguageTag(),
+				key -> getMapper().writer(new SimpleDateFormat(dateFormat, locale)));
+	}
+
+	/**
+	 * Get additional Jackson modules to register with the object mapper used by
+	 * this servlet. Called once, when the first response is written.
+	 *
+	 * @return modules to register
+	 */
+	protected Collection<Module> getModules() {
+		return Collections.emptyList();
+	}
+
+	// internals
+
+	// package-private so that benchmarks measure the same encoding as responses
+	byte[] encode(final Object object, final ResponseFormat format) throws IOException {
+		final byte[] bytes;
+
+		if (format == ResponseFormat.JSON) {
+			bytes = encodeJson(object);
+		} else {
+			final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+			try (final JsonGenerator generator = format.getFactory(FACTORY).createGenerator(outputStream)) {
+				getWriter(DEFAULT_DATE_FORMAT, Locale.US).writeValue(generator, object);
+			}
+
+			bytes = outputStream.toByteArray();
+		}
+
+		return bytes;
+	}
+
+	private void writeEncodedResponse(final SlingHttpServletResponse response, final byte[] bytes,
+			final ResponseFormat format, final boolean gzip) throws IOException {
+		response.setContentType(format.getContentType());
+
+		if (format.isText()) {
+			response.setCharacterEncoding(ENCODING);
+		}
+
+		response.setContentLength(bytes.length);
+
+		if (gzip) {
+			addVary(response, HttpHeaders.ACCEPT_ENCODING);
+
+			response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+			final String entityTag = response.getHeader(HttpHeaders.ETAG);
+
+			// the compressed representation requires a distinct strong entity tag
+			if (entityTag != null && entityTag.endsWith("\"")
+					&& !entityTag.endsWith(GZIP_ENTITY_TAG_SUFFIX + "\"")) {
+				response.setHeader(HttpHeaders.ETAG,
+						entityTag.substring(0, entityTag.length() - 1) + GZIP_ENTITY_TAG_SUFFIX + "\"");
+			}
+		}
+
+		response.getOutputStream().write(bytes);
+	}
+
+	private static boolean matches(final String ifNoneMatch, final String entityTag) {
+		// representations with different content codings of the same content match
+		final String contentTag = entityTag.endsWith(GZIP_ENTITY_TAG_SUFFIX)
+				? entityTag.substring(0, entityTag.length() - GZIP_ENTITY_TAG_SUFFIX.length())
+				: entityTag;
+
+		boolean matches = false;
+
+		for (final String value : ifNoneMatch.split(",")) {
+			String tag = value.trim();
+
+			if ("*".equals(tag)) {
+				matches = true;
+			} else {
+				// weak comparison, as required for If-None-Match
+				if (tag.startsWith("W/")) {
+					tag = tag.substring(2);
+				}
+
+				if (tag.length() > 1 && tag.startsWith("\"") && tag.endsWith("\"")) {
+					tag = tag.substring(1, tag.length() - 1);
+				}
+
+				if (tag.endsWith(GZIP_ENTITY_TAG_SUFFIX)) {
+					tag = tag.substring(0, tag.length() - GZIP_ENTITY_TAG_SUFFIX.length());
+				}
+
+				matches = matches || contentTag.equals(tag);
+			}
+		}
+
+		return matches;
+	}
+
+	private static long getIfModifiedSince(final SlingHttpServletRequest request) {
+		long ifModifiedSince;
+
+		try {
+			ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+		} catch (IllegalArgumentException e) {
+			LOG.debug("invalid If-Modified-Since header : {}", request.getHeader(HttpHeaders.IF_MODIFIED_SINCE));
+
+			ifModifiedSince = -1;
+		}
+
+		return ifModifiedSince;
+	}
+
+	private void writeElements(final SlingHttpServletResponse response, final Iterator<?> elements,
+			final boolean newlineDelimited) throws IOException {
+		response.setContentType(newlineDelimited ? CONTENT_TYPE_NDJSON : CONTENT_TYPE);
+		response.setCharacterEncoding(ENCODING);
+
+		// flushing is controlled by the flush interval rather than after each element
+		final ObjectWriter writer = getWriter(DEFAULT_DATE_FORMAT, Locale.US)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+		final int flushInterval = Math.max(1, getFlushInterval());
+
+		int count = 0;
+
+		try (final JsonGenerator generator = FACTORY.createGenerator(response.getWriter())) {
+			// a failure mid-stream must leave the output truncated rather than closed as a valid, shorter array
+			generator.disable(Feature.AUTO_CLOSE_JSON_CONTENT);
+			generator.setRootValueSeparator(null);
+
+			if (!newlineDelimited) {
+				generator.writeStartArray();
+			}
+
+			while (elements.hasNext()) {
+				writer.writeValue(generator, elements.next());
+
+				if (newlineDelimited) {
+					generator.writeRaw('\n');
+				}
+
+				if (++count % flushInterval == 0) {
+					generator.flush();
+				}
+			}
+
+			if (!newlineDelimited) {
+				generator.writeEndArray();
+			}
+		} catch (IOException | RuntimeException e) {
+			LOG.error("error writing JSON response after " + count + " element(s)", e);
+
+			throw e;
+		}
+	}
+
+	private ObjectMapper getMapper() {
+		ObjectMapper result = mapper;
+
+		if (result == null) {
+			synchronized (writers) {
+				result = mapper;
+
+				if (result == null) {
+					result = new ObjectMapper().registerModules(getModules());
+
+					mapper = result;
+				}
+			}
+		}
+
+		return result;
+	}
 }
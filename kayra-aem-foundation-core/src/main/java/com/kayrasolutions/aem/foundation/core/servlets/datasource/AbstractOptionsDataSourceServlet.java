@@ -1,24 +1,17 @@
 package com.kayrasolutions.aem.foundation.core.servlets.datasource;
 
-import static com.day.cq.commons.jcr.JcrConstants.NT_UNSTRUCTURED;
-
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 import org.apache.sling.api.SlingHttpServletRequest;
 import org.apache.sling.api.SlingHttpServletResponse;
-import org.apache.sling.api.resource.Resource;
-import org.apache.sling.api.resource.ResourceMetadata;
-import org.apache.sling.api.resource.ResourceResolver;
-import org.apache.sling.api.resource.ValueMap;
+import org.apache.sling.api.scripting.SlingBindings;
 import org.apache.sling.api.servlets.SlingSafeMethodsServlet;
-import org.apache.sling.api.wrappers.ValueMapDecorator;
 
+import com.adobe.granite.ui.components.ExpressionHelper;
+import com.adobe.granite.ui.components.ExpressionResolver;
 import com.adobe.granite.ui.components.ds.DataSource;
-import com.adobe.granite.ui.components.ds.SimpleDataSource;
-import com.adobe.granite.ui.components.ds.ValueMapResource;
-import com.google.common.collect.Maps;
+import com.google.common.primitives.Longs;
 import com.kayrasolutions.aem.foundation.core.servlets.optionsprovider.Option;
 
 /**
@@ -30,10 +23,19 @@ import com.kayrasolutions.aem.foundation.core.servlets.optionsprovider.Option;
  * annotation. The resource type attribute is an arbitrary relative path that
  * can be referenced by dialog elements using the data source. The implementing
  * class determines how these options are retrieved from the repository (or
- * external provider, such as a web service).
+ * external provider, such as a web service). The <code>offset</code> and
+ * <code>limit</code> paging parameters are read from the request or the data
+ * source configuration, and synthetic resources are only created for the
+ * options within the requested page. Configured paging properties may be EL
+ * expressions (e.g. <code>${requestPathInfo.selectors[0]}</code>), which are
+ * evaluated in the same way as by Granite UI data sources.
  */
 public abstract class AbstractOptionsDataSourceServlet extends SlingSafeMethodsServlet {
 
+	private static final String PARAMETER_OFFSET = "offset";
+
+	private static final String PARAMETER_LIMIT = "limit";
+
 	private static final long serialVersionUID = 1L;
 
 	/**
@@ -47,26 +49,62 @@ public abstract class AbstractOptionsDataSourceServlet extends SlingSafeMethodsS
 	 */
 	protected abstract List<Option> getOptions(final SlingHttpServletRequest request);
 
+	/**
+	 * Get the resolver used to evaluate EL expressions in the data source
+	 * configuration. Defaults to the service available to the script including the
+	 * data source, as Granite UI fields include their data sources from scripts.
+	 * Override this method to return a referenced <code>ExpressionResolver</code>
+	 * service instead.
+	 *
+	 * @param request Sling request
+	 * @return optional expression resolver, absent if configured values should be
+	 *         used as literals
+	 */
+	protected Optional<ExpressionResolver> getExpressionResolver(final SlingHttpServletRequest request) {
+		return Optional.ofNullable((SlingBindings) request.getAttribute(SlingBindings.class.getName()))
+				.map(SlingBindings::getSling)
+				.map(sling -> sling.getService(ExpressionResolver.class));
+	}
+
 	@Override
 	protected final void doGet(final SlingHttpServletRequest request, final SlingHttpServletResponse response) {
-		final ResourceResolver resourceResolver = request.getResourceResolver();
-
 		final List<Option> options = getOptions(request);
 
-		// transform the list of options into a list of synthetic resources
-		final List<Resource> resources = options.stream().map(option -> {
-			final Map<String, Object> map = Maps.newHashMapWithExpectedSize(options.size());
+		final ExpressionHelper expressionHelper = getExpressionResolver(request)
+				.map(expressionResolver -> new ExpressionHelper(expressionResolver, request))
+				.orElse(null);
+
+		// synthetic resources are created on demand for the requested page of options only
+		final DataSource dataSource = new OptionDataSource(request.getResourceResolver(), options,
+				getPagingParameter(request, PARAMETER_OFFSET, expressionHelper),
+				getPagingParameter(request, PARAMETER_LIMIT, expressionHelper));
+
+		request.setAttribute(DataSource.class.getName(), dataSource);
+	}
 
-			map.put("value", option.getValue());
-			map.put("text", option.getText());
+	// internals
 
-			final ValueMap valueMap = new ValueMapDecorator(map);
+	private static Long getPagingParameter(final SlingHttpServletRequest request, final String name,
+			final ExpressionHelper expressionHelper) {
+		final String parameter = request.getParameter(name);
 
-			return new ValueMapResource(resourceResolver, new ResourceMetadata(), NT_UNSTRUCTURED, valueMap);
-		}).collect(Collectors.toList());
+		final Long value;
 
-		final DataSource dataSource = new SimpleDataSource(resources.iterator());
+		// request parameter takes precedence over the data source configuration
+		if (parameter == null) {
+			final String property = request.getResource().getValueMap().get(name, String.class);
 
-		request.setAttribute(DataSource.class.getName(), dataSource);
+			if (property == null) {
+				value = null;
+			} else if (expressionHelper == null) {
+				value = Longs.tryParse(property);
+			} else {
+				value = expressionHelper.get(property, Long.class);
+			}
+		} else {
+			value = Longs.tryParse(parameter);
+		}
+
+		return value;
 	}
 }
@@ -3,12 +3,17 @@ package com.kayrasolutions.aem.foundation.core.servlets.datasource;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 import org.apache.sling.api.SlingHttpServletRequest;
 
 import com.day.cq.commons.Filter;
 import com.day.cq.tagging.Tag;
+import com.day.cq.tagging.TagConstants;
 import com.day.cq.tagging.TagManager;
+import com.kayrasolutions.aem.foundation.core.servlets.impl.TagTreeCache;
 import com.kayrasolutions.aem.foundation.core.servlets.optionsprovider.Option;
 
 /**
@@ -16,7 +21,10 @@ import com.kayrasolutions.aem.foundation.core.servlets.optionsprovider.Option;
  * options from tags within the repository. A basic extension is to provide just
  * the namespace of the tags and the servlet will build a list of options from
  * all direct descendants of that namespace tag. Extending classes may
- * optionally provide a more granular tag path and a custom filter.
+ * optionally provide a more granular tag path, a custom filter, a locale for
+ * tag titles, and the number of tag levels to include. Options are built from
+ * a cached snapshot of the namespace tag tree while the tag tree cache is
+ * enabled, and from the requested tag levels otherwise.
  */
 abstract class AbstractTagDataSourceServlet extends AbstractOptionsDataSourceServlet {
 
@@ -29,18 +37,38 @@ abstract class AbstractTagDataSourceServlet extends AbstractOptionsDataSourceSer
 
 	@Override
 	protected List<Option> getOptions(final SlingHttpServletRequest request) {
+		return getTagOptions(request, getNamespace() + getContainerTagRelativePath(), getLocale(request).orElse(null),
+				getDepth());
+	}
+
+	/**
+	 * Get options for the descendants of a container tag. While the tag tree cache
+	 * is enabled, options are built from a snapshot of the tag tree for the
+	 * namespace of the container tag, which is shared across requests of users
+	 * with the same group principals until a tag in the namespace changes.
+	 * Otherwise, only the requested levels below the container tag are read.
+	 *
+	 * @param request        Sling request
+	 * @param containerTagId ID or path of the container tag
+	 * @param locale         locale for tag titles, or null for the default title
+	 * @param depth          number of levels below the container tag to include
+	 * @return options for tags below the container tag, in tree order
+	 */
+	protected final List<Option> getTagOptions(final SlingHttpServletRequest request, final String containerTagId,
+			final Locale locale, final int depth) {
 		final TagManager tagManager = request.getResourceResolver().adaptTo(TagManager.class);
-		final Tag containerTag = tagManager.resolve(getNamespace() + getContainerTagRelativePath());
 
-		final List<Option> options = new ArrayList<>();
+		final List<Option> options;
 
-		if (containerTag != null) {
-			final Iterator<Tag> iterator = containerTag.listChildren(getTagFilter());
+		if (TagTreeCache.isEnabled()) {
+			options = getSnapshotOptions(request, tagManager, containerTagId, locale, depth);
+		} else {
+			final Tag containerTag = tagManager.resolve(containerTagId);
 
-			while (iterator.hasNext()) {
-				final Tag tag = iterator.next();
+			options = new ArrayList<>();
 
-				options.add(new Option(tag.getTagID(), tag.getTitle()));
+			if (containerTag != null) {
+				addTagOptions(containerTag, null, locale, depth, getTagFilter(), options);
 			}
 		}
 
@@ -68,6 +96,29 @@ abstract class AbstractTagDataSourceServlet extends AbstractOptionsDataSourceSer
 		return "";
 	}
 
+	/**
+	 * Override this method to provide the locale used for tag titles. Defaults to
+	 * the default tag title if not overridden.
+	 *
+	 * @param request Sling request
+	 * @return optional locale for tag titles
+	 */
+	protected Optional<Locale> getLocale(final SlingHttpServletRequest request) {
+		return Optional.empty();
+	}
+
+	/**
+	 * Override this method to include descendants below the direct children of
+	 * the container tag. Titles of nested tags are prefixed with the titles of
+	 * their ancestors. Defaults to 1 if not overridden, resulting in only direct
+	 * children being returned.
+	 *
+	 * @return number of levels below the container tag to include
+	 */
+	protected int getDepth() {
+		return 1;
+	}
+
 	/**
 	 * Override this method to provide a filter for the list of tags returned by the
 	 * servlet. Defaults to an all inclusive filter if not overridden.
@@ -78,4 +129,75 @@ abstract class AbstractTagDataSourceServlet extends AbstractOptionsDataSourceSer
 	protected Filter<Tag> getTagFilter() {
 		return TAG_FILTER_INCLUDE_ALL;
 	}
+
+	// internals
+
+	private List<Option> getSnapshotOptions(final SlingHttpServletRequest request, final TagManager tagManager,
+			final String containerTagId, final Locale locale, final int depth) {
+		String tagId = containerTagId;
+		String namespace = null;
+
+		if (tagId.startsWith("/") || tagId.indexOf(TagConstants.NAMESPACE_DELIMITER_CHR) == -1) {
+			// resolve paths and IDs in the default namespace to fully-qualified IDs
+			final Tag containerTag = tagManager.resolve(tagId);
+
+			if (containerTag != null) {
+				tagId = containerTag.getTagID();
+				namespace = containerTag.getNamespace().getTagID();
+			}
+		} else {
+			namespace = tagId.substring(0, tagId.indexOf(TagConstants.NAMESPACE_DELIMITER_CHR) + 1);
+		}
+
+		final List<Option> options;
+
+		if (namespace == null) {
+			options = new ArrayList<>();
+		} else {
+			final String containerId = tagId;
+			final Predicate<String> filter = getTagIdFilter(tagManager);
+
+			options = TagTreeCache.getSnapshot(request.getResourceResolver(), namespace)
+					.map(snapshot -> snapshot.getOptions(containerId, locale, depth, filter))
+					.orElseGet(ArrayList::new);
+		}
+
+		return options;
+	}
+
+	private static void addTagOptions(final Tag parent, final String parentText, final Locale locale, final int depth,
+			final Filter<Tag> tagFilter, final List<Option> options) {
+		final Iterator<Tag> iterator = parent.listChildren(tagFilter);
+
+		while (iterator.hasNext()) {
+			final Tag tag = iterator.next();
+			final String title = locale == null ? tag.getTitle() : tag.getTitle(locale);
+			final String text = parentText == null ? title : parentText + TagConstants.TITLEPATH_DELIMITER + title;
+
+			options.add(new Option(tag.getTagID(), text));
+
+			if (depth > 1) {
+				addTagOptions(tag, text, locale, depth - 1, tagFilter, options);
+			}
+		}
+	}
+
+	private Predicate<String> getTagIdFilter(final TagManager tagManager) {
+		final Filter<Tag> tagFilter = getTagFilter();
+
+		final Predicate<String> filter;
+
+		if (tagFilter == TAG_FILTER_INCLUDE_ALL) {
+			filter = tagId -> true;
+		} else {
+			// custom filters require the tag itself, which is not part of the snapshot
+			filter = tagId -> {
+				final Tag tag = tagManager.resolve(tagId);
+
+				return tag != null && tagFilter.includes(tag);
+			};
+		}
+
+		return filter;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.kayrasolutions.aem.foundation.core.servlets.datasource;
+
+import static com.day.cq.commons.jcr.JcrConstants.NT_UNSTRUCTURED;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceMetadata;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.wrappers.ValueMapDecorator;
+
+import com.adobe.granite.ui.components.ds.DataSource;
+import com.adobe.granite.ui.components.ds.ValueMapResource;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+import com.kayrasolutions.aem.foundation.core.servlets.optionsprovider.Option;
+
+/**
+ * Data source over a list of options. Synthetic resources are only created for
+ * the options within the requested offset and limit, as the iterator advances.
+ */
+final class OptionDataSource implements DataSource {
+
+	private final ResourceResolver resourceResolver;
+
+	private final List<Option> options;
+
+	private final Long offset;
+
+	private final Long limit;
+
+	OptionDataSource(final ResourceResolver resourceResolver, final List<Option> options, final Long offset,
+			final Long limit) {
+		this.resourceResolver = resourceResolver;
+		this.options = options;
+		this.offset = offset;
+		this.limit = limit;
+	}
+
+	@Override
+	public Iterator<Resource> iterator() {
+		final int size = options.size();
+		final int fromIndex = offset == null ? 0 : (int) Math.min(Math.max(offset, 0), size);
+		final int toIndex = limit == null ? size : (int) Math.min(fromIndex + Math.max(limit, 0), size);
+
+		return Iterators.transform(options.subList(fromIndex, toIndex).iterator(), this::toResource);
+	}
+
+	@Override
+	public Long getOffset() {
+		return offset;
+	}
+
+	@Override
+	public Long getLimit() {
+		return limit;
+	}
+
+	@Override
+	public Long getGuessTotal() {
+		return (long) options.size();
+	}
+
+	// internals
+
+	private Resource toResource(final Option option) {
+		final Map<String, Object> map = Maps.newHashMapWithExpectedSize(2);
+
+		map.put("value", option.getValue());
+		map.put("text", option.getText());
+
+		return new ValueMapResource(resourceResolver, new ResourceMetadata(), NT_UNSTRUCTURED,
+				new ValueMapDecorator(map));
+	}
+}
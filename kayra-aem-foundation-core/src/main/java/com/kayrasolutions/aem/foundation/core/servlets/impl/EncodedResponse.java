@@ -0,0 +1,75 @@
+package com.kayrasolutions.aem.foundation.core.servlets.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Fully encoded JSON response body, along with its entity tag. The
+ * gzip-compressed variant is only computed once a client accepting gzip
+ * encoding requests it, and is then retained for the lifetime of the response.
+ */
+public final class EncodedResponse {
+
+	private final byte[] bytes;
+
+	private volatile byte[] gzipBytes;
+
+	private final String entityTag;
+
+	/**
+	 * Create an encoded response.
+	 *
+	 * @param bytes     UTF-8 encoded JSON
+	 * @param entityTag unquoted entity tag of the encoded JSON
+	 * @return encoded response
+	 */
+	public static EncodedResponse create(final byte[] bytes, final String entityTag) {
+		return new EncodedResponse(bytes, entityTag);
+	}
+
+	/**
+	 * @return UTF-8 encoded JSON
+	 */
+	public byte[] getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Get the gzip-compressed JSON, compressing it on first use.
+	 *
+	 * @return gzip-compressed UTF-8 encoded JSON
+	 * @throws IOException if error occurs compressing the response
+	 */
+	public byte[] getGzipBytes() throws IOException {
+		byte[] compressed = gzipBytes;
+
+		// concurrent first requests may each compress the body, which yields identical bytes
+		if (compressed == null) {
+			final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(Math.max(32, bytes.length / 4));
+
+			try (final GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+				gzipOutputStream.write(bytes);
+			}
+
+			compressed = outputStream.toByteArray();
+			gzipBytes = compressed;
+		}
+
+		return compressed;
+	}
+
+	/**
+	 * @return unquoted entity tag of the encoded JSON
+	 */
+	public String getEntityTag() {
+		return entityTag;
+	}
+
+	// internals
+
+	private EncodedResponse(final byte[] bytes, final String entityTag) {
+		this.bytes = bytes;
+		this.entityTag = entityTag;
+	}
+}
@@ -0,0 +1,304 @@
+package com.kayrasolutions.aem.foundation.core.servlets.impl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+
+/**
+ * Shared cache of encoded JSON responses, and of values derived from the same
+ * content such as search indexes, keyed by a servlet-specific cache key. Each
+ * entry is registered against the repository paths it depends on and
+ * is invalidated when a resource at or below one of those paths changes. The
+ * cache is only enabled while the <code>EncodedResponseCacheInvalidator</code>
+ * component is active.
+ */
+public final class EncodedResponseCache {
+
+	/**
+	 * Encoder for a response that is not present in the cache.
+	 */
+	@FunctionalInterface
+	public interface Encoder {
+
+		/**
+		 * @return encoded response
+		 * @throws IOException if error occurs encoding the response
+		 */
+		EncodedResponse encode() throws IOException;
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(EncodedResponseCache.class);
+
+	private static final AtomicLong GENERATION = new AtomicLong();
+
+	// dependency path to the keys of cached responses depending on that path, sorted so that the dependency paths
+	// below a changed path form a contiguous range
+	private static final ConcurrentNavigableMap<String, Set<String>> DEPENDENT_KEYS = new ConcurrentSkipListMap<>();
+
+	private static volatile Cache<String, CacheEntry> cache;
+
+	/**
+	 * Get the encoded response for a key, encoding and caching the response if it
+	 * is not present. If the cache is disabled, the response is encoded on every
+	 * call.
+	 *
+	 * @param key             cache key
+	 * @param dependencyPaths repository paths the response depends on
+	 * @param encoder         encoder for the response
+	 * @return encoded response
+	 * @throws IOException if error occurs encoding the response
+	 */
+	public static EncodedResponse get(final String key, final Collection<String> dependencyPaths,
+			final Encoder encoder) throws IOException {
+		return get(key, dependencyPaths, encoder, response -> true);
+	}
+
+	/**
+	 * Get the encoded response for a key, encoding the response if it is not
+	 * present and caching it only if it is accepted by the given predicate (e.g.
+	 * if it is complete). If the cache is disabled, the response is encoded on
+	 * every call.
+	 *
+	 * @param key             cache key
+	 * @param dependencyPaths repository paths the response depends on
+	 * @param encoder         encoder for the response
+	 * @param cacheable       predicate accepting encoded responses that may be
+	 *                        cached
+	 * @return encoded response
+	 * @throws IOException if error occurs encoding the response
+	 */
+	public static EncodedResponse get(final String key, final Collection<String> dependencyPaths,
+			final Encoder encoder, final Predicate<? super EncodedResponse> cacheable) throws IOException {
+		checkNotNull(key);
+		checkNotNull(dependencyPaths);
+
+		final EncodedResponse response;
+
+		try {
+			response = getValue(key, dependencyPaths, EncodedResponse.class, () -> {
+				try {
+					return encoder.encode();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}, cacheable);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+
+		return response;
+	}
+
+	/**
+	 * Get a value derived from the content of a response, loading and caching the
+	 * value if it is not present. Values share the size limit, expiry, and
+	 * invalidation of encoded responses, so keys must not collide with response
+	 * keys. If the cache is disabled, the value is loaded on every call.
+	 *
+	 * @param key             cache key
+	 * @param dependencyPaths repository paths the value depends on
+	 * @param type            value type
+	 * @param loader          loader for the value
+	 * @param <T>             value type
+	 * @return value
+	 */
+	public static <T> T getValue(final String key, final Collection<String> dependencyPaths, final Class<T> type,
+			final Supplier<T> loader) {
+		return getValue(key, dependencyPaths, type, loader, value -> true);
+	}
+
+	/**
+	 * Get a value derived from the content of a response, loading the value if it
+	 * is not present and caching it only if it is accepted by the given predicate.
+	 * If the cache is disabled, the value is loaded on every call.
+	 *
+	 * @param key             cache key
+	 * @param dependencyPaths repository paths the value depends on
+	 * @param type            value type
+	 * @param loader          loader for the value
+	 * @param cacheable       predicate accepting loaded values that may be cached
+	 * @param <T>             value type
+	 * @return value
+	 */
+	public static <T> T getValue(final String key, final Collection<String> dependencyPaths, final Class<T> type,
+			final Supplier<T> loader, final Predicate<? super T> cacheable) {
+		checkNotNull(key);
+		checkNotNull(dependencyPaths);
+
+		final Cache<String, CacheEntry> entries = cache;
+
+		final T value;
+
+		if (entries == null) {
+			value = loader.get();
+		} else {
+			final CacheEntry cachedEntry = entries.getIfPresent(key);
+
+			if (cachedEntry == null || !type.isInstance(cachedEntry.value)) {
+				final long generation = GENERATION.get();
+
+				value = loader.get();
+
+				if (cacheable.test(value)) {
+					put(entries, key, generation, new CacheEntry(value, dependencyPaths.toArray(new String[0])));
+				}
+			} else {
+				value = type.cast(cachedEntry.value);
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * @return true if the cache is enabled, i.e. if cached values are retained
+	 *         rather than loaded on every call
+	 */
+	public static boolean isEnabled() {
+		return cache != null;
+	}
+
+	static void enable(final long maximumSize, final long expirySeconds) {
+		GENERATION.incrementAndGet();
+
+		cache = CacheBuilder.newBuilder().maximumSize(maximumSize).expireAfterWrite(expirySeconds, TimeUnit.SECONDS)
+				.removalListener((RemovalListener<String, CacheEntry>) notification -> {
+					for (final String path : notification.getValue().dependencyPaths) {
+						unregister(path, notification.getKey());
+					}
+				})
+				.build();
+
+		DEPENDENT_KEYS.clear();
+	}
+
+	static void disable() {
+		GENERATION.incrementAndGet();
+
+		cache = null;
+
+		DEPENDENT_KEYS.clear();
+	}
+
+	/**
+	 * Invalidate responses depending on a path that is equal to, an ancestor of,
+	 * or a descendant of any of the changed paths.
+	 *
+	 * @param changedPaths paths of the changed resources
+	 */
+	static void invalidate(final Collection<String> changedPaths) {
+		GENERATION.incrementAndGet();
+
+		final Cache<String, CacheEntry> responses = cache;
+
+		if (responses != null) {
+			final Set<String> keys = new HashSet<>();
+
+			for (final String changedPath : changedPaths) {
+				// ancestors of the changed path, including the path itself and the root
+				String path = changedPath;
+
+				while (path != null) {
+					removeKeys(path, keys);
+
+					final int index = path.lastIndexOf('/');
+
+					path = index > 0 ? path.substring(0, index) : index == 0 && path.length() > 1 ? "/" : null;
+				}
+
+				// descendants of the changed path
+				final String prefix = changedPath.endsWith("/") ? changedPath : changedPath + "/";
+				final String end = prefix.substring(0, prefix.length() - 1) + (char) ('/' + 1);
+
+				new ArrayList<>(DEPENDENT_KEYS.subMap(prefix, end).keySet())
+						.forEach(descendantPath -> removeKeys(descendantPath, keys));
+			}
+
+			if (!keys.isEmpty()) {
+				LOG.debug("invalidating {} response(s) for changed paths : {}", keys.size(), changedPaths);
+
+				responses.invalidateAll(keys);
+			}
+		}
+	}
+
+	// internals
+
+	private static void put(final Cache<String, CacheEntry> entries, final String key, final long generation,
+			final CacheEntry entry) {
+		// keys are registered after the put, since replacing an entry unregisters the replaced entry
+		entries.put(key, entry);
+
+		for (final String path : entry.dependencyPaths) {
+			register(path, key);
+		}
+
+		// discard the entry if content was invalidated while the value was loaded or registered
+		if (generation != GENERATION.get()) {
+			entries.invalidate(key);
+		}
+	}
+
+	private static void removeKeys(final String path, final Set<String> keys) {
+		final Set<String> dependentKeys = DEPENDENT_KEYS.remove(path);
+
+		if (dependentKeys != null) {
+			keys.addAll(dependentKeys);
+		}
+	}
+
+	private static void register(final String path, final String key) {
+		// atomic with unregister, so a key is never added to a set that was just dropped
+		DEPENDENT_KEYS.compute(path, (p, keys) -> {
+			final Set<String> dependentKeys = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+
+			dependentKeys.add(key);
+
+			return dependentKeys;
+		});
+	}
+
+	private static void unregister(final String path, final String key) {
+		// drop the path entirely once no cached response depends on it
+		DEPENDENT_KEYS.computeIfPresent(path, (p, keys) -> {
+			keys.remove(key);
+
+			return keys.isEmpty() ? null : keys;
+		});
+	}
+
+	private static final class CacheEntry {
+
+		private final Object value;
+
+		private final String[] dependencyPaths;
+
+		private CacheEntry(final Object value, final String[] dependencyPaths) {
+			this.value = value;
+			this.dependencyPaths = dependencyPaths;
+		}
+	}
+
+	private EncodedResponseCache() {
+
+	}
+}
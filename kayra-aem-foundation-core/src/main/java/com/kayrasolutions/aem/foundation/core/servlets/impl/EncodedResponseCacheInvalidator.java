@@ -0,0 +1,83 @@
+package com.kayrasolutions.aem.foundation.core.servlets.impl;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChangeListener;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.propertytypes.ServiceDescription;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.kayrasolutions.aem.foundation.core.constants.PathConstants;
+
+/**
+ * Enables the encoded response cache for foundation JSON servlets and
+ * invalidates cached responses when a resource they depend on is added,
+ * changed, or removed.
+ */
+@Component(service = ResourceChangeListener.class, immediate = true, property = {
+		ResourceChangeListener.PATHS + "=" + PathConstants.PATH_CONTENT,
+		ResourceChangeListener.PATHS + "=" + PathConstants.PATH_ETC,
+		ResourceChangeListener.PATHS + "=/conf",
+		ResourceChangeListener.CHANGES + "=ADDED",
+		ResourceChangeListener.CHANGES + "=CHANGED",
+		ResourceChangeListener.CHANGES + "=REMOVED"
+})
+@Designate(ocd = EncodedResponseCacheInvalidator.Configuration.class)
+@ServiceDescription("Kayra Solutions Encoded Response Cache")
+public final class EncodedResponseCacheInvalidator implements ResourceChangeListener {
+
+	@ObjectClassDefinition(name = "Kayra Solutions Encoded Response Cache")
+	public @interface Configuration {
+
+		@AttributeDefinition(name = "Enabled", description = "If true, encoded responses of servlets declaring a "
+				+ "cache key are cached.")
+		boolean enabled() default true;
+
+		@AttributeDefinition(name = "Paths", description = "Repository paths observed for changes. Responses "
+				+ "depending on paths outside of these are only invalidated on expiry.")
+		String[] resource_paths() default { PathConstants.PATH_CONTENT, PathConstants.PATH_ETC, "/conf" };
+
+		@AttributeDefinition(name = "Maximum Size", description = "Maximum number of cached responses.")
+		long maximumSize() default 1000;
+
+		@AttributeDefinition(name = "Expiry", description = "Time in seconds after which a cached response expires, "
+				+ "regardless of content changes.")
+		long expirySeconds() default 3600;
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(EncodedResponseCacheInvalidator.class);
+
+	@Override
+	public void onChange(final List<ResourceChange> changes) {
+		EncodedResponseCache.invalidate(changes.stream().map(ResourceChange::getPath).collect(Collectors.toSet()));
+	}
+
+	@Activate
+	@Modified
+	protected void activate(final Configuration configuration) {
+		if (configuration.enabled()) {
+			EncodedResponseCache.enable(configuration.maximumSize(), configuration.expirySeconds());
+
+			LOG.info("enabled encoded response cache with maximum size = {}, expiry = {}s",
+					configuration.maximumSize(), configuration.expirySeconds());
+		} else {
+			EncodedResponseCache.disable();
+
+			LOG.info("disabled encoded response cache");
+		}
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		EncodedResponseCache.disable();
+	}
+}
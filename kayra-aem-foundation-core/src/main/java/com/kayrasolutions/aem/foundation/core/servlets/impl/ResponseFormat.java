@@ -0,0 +1,166 @@
+package com.kayrasolutions.aem.foundation.core.servlets.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Response formats supported by foundation JSON servlets. The binary formats are
+ * only negotiated if the corresponding Jackson data format is available at
+ * runtime, since the data format packages are optional imports.
+ */
+public enum ResponseFormat {
+
+	JSON("application/json", true),
+	SMILE("application/x-jackson-smile", false),
+	CBOR("application/cbor", false);
+
+	private static final Logger LOG = LoggerFactory.getLogger(ResponseFormat.class);
+
+	private final String contentType;
+
+	private final boolean text;
+
+	/**
+	 * Select the response format for an <code>Accept</code> header. Media ranges
+	 * are ranked by quality, with ties broken by position in the header, so a
+	 * binary format is selected only if it is explicitly accepted with a higher
+	 * quality than JSON (or a wildcard), or the same quality and an earlier
+	 * position.
+	 *
+	 * @param accept value of the <code>Accept</code> header, or null
+	 * @return negotiated format, JSON if no binary format is preferred
+	 */
+	public static ResponseFormat negotiate(final String accept) {
+		ResponseFormat format = JSON;
+
+		if (accept != null && (accept.contains(SMILE.contentType) || accept.contains(CBOR.contentType))) {
+			final String[] ranges = accept.split(",");
+
+			double bestQuality = 0;
+			int bestPosition = ranges.length;
+
+			for (int position = 0; position < ranges.length; position++) {
+				final String[] parts = ranges[position].trim().split(";");
+				final ResponseFormat rangeFormat = forMediaRange(parts[0].trim());
+				final double quality = getQuality(parts);
+
+				if (rangeFormat != null && isPreferred(quality, position, bestQuality, bestPosition)
+						&& rangeFormat.isAvailable()) {
+					format = rangeFormat;
+					bestQuality = quality;
+					bestPosition = position;
+				}
+			}
+		}
+
+		return format;
+	}
+
+	/**
+	 * @return content type of this format
+	 */
+	public String getContentType() {
+		return contentType;
+	}
+
+	/**
+	 * @return true if this format is character-based
+	 */
+	public boolean isText() {
+		return text;
+	}
+
+	/**
+	 * Get the factory for generators of this format.
+	 *
+	 * @param jsonFactory factory to be used for JSON
+	 * @return factory
+	 */
+	public JsonFactory getFactory(final JsonFactory jsonFactory) {
+		final JsonFactory factory;
+
+		// holders are only loaded once the format is used, as the data format classes may be missing
+		if (this == SMILE) {
+			factory = SmileFactoryHolder.FACTORY;
+		} else if (this == CBOR) {
+			factory = CborFactoryHolder.FACTORY;
+		} else {
+			factory = jsonFactory;
+		}
+
+		return factory;
+	}
+
+	// internals
+
+	private static ResponseFormat forMediaRange(final String mediaRange) {
+		ResponseFormat format = null;
+
+		if (SMILE.contentType.equalsIgnoreCase(mediaRange)) {
+			format = SMILE;
+		} else if (CBOR.contentType.equalsIgnoreCase(mediaRange)) {
+			format = CBOR;
+		} else if (JSON.contentType.equalsIgnoreCase(mediaRange) || "*/*".equals(mediaRange)
+				|| "application/*".equalsIgnoreCase(mediaRange)) {
+			format = JSON;
+		}
+
+		return format;
+	}
+
+	private static boolean isPreferred(final double quality, final int position, final double bestQuality,
+			final int bestPosition) {
+		return quality > 0 && (quality > bestQuality || quality == bestQuality && position < bestPosition);
+	}
+
+	private static double getQuality(final String[] parts) {
+		double quality = 1;
+
+		for (int i = 1; i < parts.length; i++) {
+			final String parameter = parts[i].trim();
+
+			if (parameter.startsWith("q=")) {
+				try {
+					quality = Double.parseDouble(parameter.substring(2));
+				} catch (NumberFormatException e) {
+					quality = 0;
+				}
+			}
+		}
+
+		return quality;
+	}
+
+	private boolean isAvailable() {
+		boolean available;
+
+		try {
+			available = getFactory(null) != null || this == JSON;
+		} catch (NoClassDefFoundError e) {
+			LOG.debug("data format not available for content type : {}", contentType);
+
+			available = false;
+		}
+
+		return available;
+	}
+
+	private static final class SmileFactoryHolder {
+
+		private static final JsonFactory FACTORY = new SmileFactory();
+	}
+
+	private static final class CborFactoryHolder {
+
+		private static final JsonFactory FACTORY = new CBORFactory();
+	}
+
+	ResponseFormat(final String contentType, final boolean text) {
+		this.contentType = contentType;
+		this.text = text;
+	}
+}
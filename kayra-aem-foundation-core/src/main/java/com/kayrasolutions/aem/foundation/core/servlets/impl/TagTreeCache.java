@@ -0,0 +1,144 @@
+package com.kayrasolutions.aem.foundation.core.servlets.impl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.sling.api.resource.ResourceResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.day.cq.tagging.Tag;
+import com.day.cq.tagging.TagManager;
+import com.google.common.base.Stopwatch;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.kayrasolutions.aem.foundation.core.cache.PrincipalFingerprint;
+
+/**
+ * Shared cache of tag tree snapshots, keyed by namespace and the
+ * <code>PrincipalFingerprint</code> of the requesting user. Snapshots are built
+ * with the resource resolver of the requesting user and shared only between
+ * users with the same group principals, so tags hidden from a user by access
+ * control are never served to that user. The cache is only enabled while the
+ * <code>TagTreeCacheInvalidator</code> component is active, since snapshots
+ * must be invalidated when tags in the namespace change.
+ */
+public final class TagTreeCache {
+
+	private static final Logger LOG = LoggerFactory.getLogger(TagTreeCache.class);
+
+	private static final AtomicLong GENERATION = new AtomicLong();
+
+	private static volatile Cache<String, TagTreeSnapshot> cache;
+
+	/**
+	 * @return true if snapshots are cached
+	 */
+	public static boolean isEnabled() {
+		return cache != null;
+	}
+
+	/**
+	 * Get the tag tree snapshot of a namespace for the user of a resource
+	 * resolver, building and caching the snapshot if it is not present. If the
+	 * cache is disabled, the snapshot is built on every call.
+	 *
+	 * @param resourceResolver resource resolver of the requesting user
+	 * @param namespace        namespace ID, e.g. "colors:"
+	 * @return snapshot, or empty if the namespace does not exist or is not readable
+	 */
+	public static Optional<TagTreeSnapshot> getSnapshot(final ResourceResolver resourceResolver,
+			final String namespace) {
+		checkNotNull(resourceResolver);
+		checkNotNull(namespace);
+
+		final Cache<String, TagTreeSnapshot> snapshots = cache;
+		final TagManager tagManager = resourceResolver.adaptTo(TagManager.class);
+
+		TagTreeSnapshot snapshot;
+
+		if (snapshots == null) {
+			snapshot = build(tagManager, namespace);
+		} else {
+			final String key = PrincipalFingerprint.get(resourceResolver) + "|" + namespace;
+
+			snapshot = snapshots.getIfPresent(key);
+
+			if (snapshot == null) {
+				final long generation = GENERATION.get();
+
+				snapshot = build(tagManager, namespace);
+
+				if (snapshot != null) {
+					snapshots.put(key, snapshot);
+
+					// discard the snapshot if tags were invalidated while it was built
+					if (generation != GENERATION.get()) {
+						snapshots.invalidate(key);
+					}
+				}
+			}
+		}
+
+		return Optional.ofNullable(snapshot);
+	}
+
+	static void enable(final long maximumSize) {
+		GENERATION.incrementAndGet();
+
+		cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+	}
+
+	static void disable() {
+		GENERATION.incrementAndGet();
+
+		cache = null;
+	}
+
+	/**
+	 * Invalidate snapshots of namespaces containing, or contained by, the changed
+	 * path.
+	 *
+	 * @param changedPath path of the changed resource
+	 */
+	static void invalidate(final String changedPath) {
+		GENERATION.incrementAndGet();
+
+		final Cache<String, TagTreeSnapshot> snapshots = cache;
+
+		if (snapshots != null) {
+			snapshots.asMap().entrySet().removeIf(entry -> {
+				final String path = entry.getValue().getPath();
+
+				return changedPath.equals(path) || changedPath.startsWith(path + "/")
+						|| path.startsWith(changedPath + "/");
+			});
+		}
+	}
+
+	// internals
+
+	private static TagTreeSnapshot build(final TagManager tagManager, final String namespace) {
+		final Tag namespaceTag = tagManager == null ? null : tagManager.resolve(namespace);
+
+		TagTreeSnapshot snapshot = null;
+
+		if (namespaceTag != null) {
+			final Stopwatch stopwatch = Stopwatch.createStarted();
+
+			snapshot = TagTreeSnapshot.build(namespaceTag);
+
+			LOG.debug("built tag tree snapshot for namespace : {} in {}ms", namespace,
+					stopwatch.elapsed(MILLISECONDS));
+		}
+
+		return snapshot;
+	}
+
+	private TagTreeCache() {
+
+	}
+}
@@ -0,0 +1,72 @@
+package com.kayrasolutions.aem.foundation.core.servlets.impl;
+
+import java.util.List;
+
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChangeListener;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.propertytypes.ServiceDescription;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.day.cq.tagging.TagConstants;
+
+/**
+ * Enables the tag tree snapshot cache and invalidates the snapshot of a
+ * namespace when a tag in that namespace is added, changed, or removed.
+ */
+@Component(service = ResourceChangeListener.class, immediate = true, property = {
+		ResourceChangeListener.PATHS + "=" + TagConstants.TAG_ROOT_PATH,
+		ResourceChangeListener.PATHS + "=" + TagConstants.LEGACY_TAG_ROOT_PATH,
+		ResourceChangeListener.CHANGES + "=ADDED",
+		ResourceChangeListener.CHANGES + "=CHANGED",
+		ResourceChangeListener.CHANGES + "=REMOVED"
+})
+@Designate(ocd = TagTreeCacheInvalidator.Configuration.class)
+@ServiceDescription("Kayra Solutions Tag Tree Cache")
+public final class TagTreeCacheInvalidator implements ResourceChangeListener {
+
+	@ObjectClassDefinition(name = "Kayra Solutions Tag Tree Cache")
+	public @interface Configuration {
+
+		@AttributeDefinition(name = "Enabled", description = "If true, tag tree snapshots are cached per namespace.")
+		boolean enabled() default true;
+
+		@AttributeDefinition(name = "Maximum Size", description = "Maximum number of cached namespace snapshots.")
+		long maximumSize() default 100;
+	}
+
+	private static final Logger LOG = LoggerFactory.getLogger(TagTreeCacheInvalidator.class);
+
+	@Override
+	public void onChange(final List<ResourceChange> changes) {
+		for (final ResourceChange change : changes) {
+			TagTreeCache.invalidate(change.getPath());
+		}
+	}
+
+	@Activate
+	@Modified
+	protected void activate(final Configuration configuration) {
+		if (configuration.enabled()) {
+			TagTreeCache.enable(configuration.maximumSize());
+
+			LOG.info("enabled tag tree cache with maximum size = {}", configuration.maximumSize());
+		} else {
+			TagTreeCache.disable();
+
+			LOG.info("disabled tag tree cache");
+		}
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		TagTreeCache.disable();
+	}
+}
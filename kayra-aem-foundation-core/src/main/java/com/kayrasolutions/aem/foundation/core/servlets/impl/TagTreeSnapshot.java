@@ -0,0 +1,154 @@
+package com.kayrasolutions.aem.foundation.core.servlets.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import com.day.cq.tagging.Tag;
+import com.day.cq.tagging.TagConstants;
+import com.google.common.collect.ImmutableMap;
+import com.kayrasolutions.aem.foundation.core.servlets.optionsprovider.Option;
+
+/**
+ * Immutable snapshot of the tag tree for a single namespace, including the
+ * localized titles of each tag. Options for any container tag in the namespace
+ * are built from the snapshot without accessing the repository.
+ */
+public final class TagTreeSnapshot {
+
+	private final String path;
+
+	private final Map<String, TagNode> nodes;
+
+	/**
+	 * Build a snapshot of the tag tree below the given namespace tag.
+	 *
+	 * @param namespaceTag namespace tag
+	 * @return snapshot
+	 */
+	public static TagTreeSnapshot build(final Tag namespaceTag) {
+		final Map<String, TagNode> nodes = new HashMap<>();
+
+		addNode(namespaceTag, nodes);
+
+		return new TagTreeSnapshot(namespaceTag.getPath(), nodes);
+	}
+
+	/**
+	 * @return repository path of the namespace tag
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * @param tagId tag ID
+	 * @return true if the tag is contained in this snapshot
+	 */
+	public boolean contains(final String tagId) {
+		return nodes.containsKey(tagId);
+	}
+
+	/**
+	 * Get options for the descendants of a container tag, in tree order. Titles of
+	 * tags below the first level are prefixed with the titles of their ancestors
+	 * relative to the container tag.
+	 *
+	 * @param containerTagId ID of the container tag
+	 * @param locale         locale for tag titles, or null for the default title
+	 * @param depth          number of levels below the container tag to include
+	 * @param filter         filter on tag IDs, applied to each descendant
+	 * @return options, or an empty list if the container tag is not in this
+	 *         snapshot
+	 */
+	public List<Option> getOptions(final String containerTagId, final Locale locale, final int depth,
+			final Predicate<String> filter) {
+		final TagNode container = nodes.get(containerTagId);
+
+		final List<Option> options = new ArrayList<>();
+
+		if (container != null) {
+			addOptions(container, null, locale, depth, filter, options);
+		}
+
+		return options;
+	}
+
+	// internals
+
+	private static TagNode addNode(final Tag tag, final Map<String, TagNode> nodes) {
+		final List<TagNode> children = new ArrayList<>();
+		final Iterator<Tag> iterator = tag.listChildren();
+
+		while (iterator.hasNext()) {
+			children.add(addNode(iterator.next(), nodes));
+		}
+
+		final TagNode node = new TagNode(tag.getTagID(), tag.getTitle(), tag.getLocalizedTitles(), children);
+
+		nodes.put(node.tagId, node);
+
+		return node;
+	}
+
+	private static void addOptions(final TagNode parent, final String parentText, final Locale locale,
+			final int depth, final Predicate<String> filter, final List<Option> options) {
+		for (final TagNode child : parent.children) {
+			if (filter.test(child.tagId)) {
+				final String title = child.getTitle(locale);
+				final String text = parentText == null ? title : parentText + TagConstants.TITLEPATH_DELIMITER + title;
+
+				options.add(new Option(child.tagId, text));
+
+				if (depth > 1) {
+					addOptions(child, text, locale, depth - 1, filter, options);
+				}
+			}
+		}
+	}
+
+	private TagTreeSnapshot(final String path, final Map<String, TagNode> nodes) {
+		this.path = path;
+		this.nodes = nodes;
+	}
+
+	private static final class TagNode {
+
+		private final String tagId;
+
+		private final String title;
+
+		private final Map<Locale, String> localizedTitles;
+
+		private final List<TagNode> children;
+
+		private TagNode(final String tagId, final String title, final Map<Locale, String> localizedTitles,
+				final List<TagNode> children) {
+			this.tagId = tagId;
+			this.title = title;
+			this.localizedTitles = localizedTitles == null || localizedTitles.isEmpty() ? Collections.emptyMap()
+					: ImmutableMap.copyOf(localizedTitles);
+			this.children = children;
+		}
+
+		// same fallback as Tag.getTitle(Locale): language and country, then language, then default title
+		private String getTitle(final Locale locale) {
+			String localizedTitle = null;
+
+			if (locale != null) {
+				localizedTitle = localizedTitles.get(locale);
+
+				if (localizedTitle == null && !locale.getCountry().isEmpty()) {
+					localizedTitle = localizedTitles.get(new Locale(locale.getLanguage()));
+				}
+			}
+
+			return localizedTitle == null ? title : localizedTitle;
+		}
+	}
+}
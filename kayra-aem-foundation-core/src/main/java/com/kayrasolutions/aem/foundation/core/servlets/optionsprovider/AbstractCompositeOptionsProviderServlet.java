@@ -0,0 +1,271 @@
+package com.kayrasolutions.aem.foundation.core.servlets.optionsprovider;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.sling.api.SlingHttpServletRequest;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Stopwatch;
+import com.kayrasolutions.aem.foundation.core.executor.FoundationExecutor;
+
+/**
+ * Options provider that merges the options of several sources. Sources are
+ * called concurrently on the foundation executor, each with its own service
+ * resource resolver. Sources that fail or do not complete within their timeout
+ * are abandoned and omitted from the result, as are sources that already have
+ * their maximum number of timed-out calls still running. If any source is
+ * omitted, the response is marked as partial so that it is neither cached nor
+ * revalidated. Options are deduplicated by value, with the first source in
+ * order taking precedence, and sorted using the option comparator.
+ */
+public abstract class AbstractCompositeOptionsProviderServlet extends AbstractOptionsProviderServlet {
+
+	private static final Logger LOG = LoggerFactory.getLogger(AbstractCompositeOptionsProviderServlet.class);
+
+	private static final long serialVersionUID = 1L;
+
+	private final ConcurrentMap<String, AtomicInteger> timedOutCalls = new ConcurrentHashMap<>();
+
+	/**
+	 * @param request Sling request
+	 * @return sources of options, in order of precedence
+	 */
+	protected abstract List<OptionSource> getOptionSources(final SlingHttpServletRequest request);
+
+	/**
+	 * Get the executor used to call option sources. Implementing servlets should
+	 * reference the <code>FoundationExecutor</code> service.
+	 *
+	 * @return executor
+	 */
+	protected abstract FoundationExecutor getExecutor();
+
+	/**
+	 * Override this method to change the order of the merged options. Defaults to
+	 * a case-insensitive alphabetical order if not overridden.
+	 *
+	 * @return comparator for merged options
+	 */
+	protected Comparator<Option> getComparator() {
+		return Option.ALPHA_IGNORE_CASE;
+	}
+
+	@Override
+	protected final List<Option> getOptions(final SlingHttpServletRequest request) {
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final List<OptionSource> sources = getOptionSources(request);
+		final List<SourceCall> calls = new ArrayList<>(sources.size());
+		final List<CompletableFuture<List<Option>>> futures = new ArrayList<>(sources.size());
+
+		boolean partial = false;
+
+		for (final OptionSource source : sources) {
+			final AtomicInteger count = timedOutCalls.computeIfAbsent(source.getName(), name -> new AtomicInteger());
+
+			if (count.get() >= source.getMaxTimedOutCalls()) {
+				LOG.warn("option source {} has {} timed-out call(s) still running, omitting options",
+						source.getName(), count.get());
+
+				partial = true;
+			} else {
+				final SourceCall call = new SourceCall(source, count);
+
+				calls.add(call);
+				futures.add(getExecutor().submit(call));
+			}
+		}
+
+		final Map<String, Option> options = new LinkedHashMap<>();
+
+		for (int i = 0; i < calls.size(); i++) {
+			final List<Option> sourceOptions = await(calls.get(i), futures.get(i));
+
+			if (sourceOptions == null) {
+				partial = true;
+			} else {
+				sourceOptions.forEach(option -> options.putIfAbsent(option.getValue(), option));
+			}
+		}
+
+		if (partial) {
+			setPartial(request);
+		}
+
+		final List<Option> result = new ArrayList<>(options.values());
+
+		result.sort(getComparator());
+
+		LOG.debug("merged {} option(s) from {} source(s) in {}ms", result.size(), sources.size(),
+				stopwatch.elapsed(MILLISECONDS));
+
+		return result;
+	}
+
+	// internals
+
+	/**
+	 * Wait for a source call. The timeout is measured from the time the call started running, so sources queued
+	 * behind others are not penalized for the wait; a call that has not started within its timeout of being
+	 * submitted is removed from the queue instead. A running call that times out is abandoned, not interrupted, and
+	 * counts against the cap of its source until it completes.
+	 *
+	 * @return options, or null if the source failed or timed out
+	 */
+	private List<Option> await(final SourceCall call, final CompletableFuture<List<Option>> future) {
+		List<Option> sourceOptions = null;
+		boolean waiting = true;
+
+		while (waiting) {
+			try {
+				sourceOptions = future.get(call.getRemainingMillis(), MILLISECONDS);
+				waiting = false;
+			} catch (TimeoutException e) {
+				if (call.abandon()) {
+					LOG.warn("option source {} did not start within {}ms, omitting options", call.getName(),
+							call.getTimeout());
+
+					future.cancel(false);
+					waiting = false;
+				} else if (call.getRemainingMillis() == 0) {
+					LOG.warn("option source {} timed out after {}ms, omitting options", call.getName(),
+							call.getTimeout());
+
+					call.timeOut();
+					waiting = false;
+				}
+			} catch (ExecutionException e) {
+				LOG.error("error getting options from option source " + call.getName() + ", omitting options",
+						e.getCause());
+
+				call.abandon();
+				waiting = false;
+			} catch (InterruptedException e) {
+				LOG.warn("interrupted waiting for option source {}, omitting options", call.getName());
+
+				Thread.currentThread().interrupt();
+
+				if (call.abandon()) {
+					future.cancel(false);
+				} else {
+					call.timeOut();
+				}
+
+				waiting = false;
+			}
+		}
+
+		return sourceOptions;
+	}
+
+	/**
+	 * Single call of an option source. A call that is still running when its caller stops waiting is counted as
+	 * timed out by its source until it completes.
+	 */
+	private static final class SourceCall implements Function<ResourceResolver, List<Option>> {
+
+		private static final int PENDING = 0;
+
+		private static final int RUNNING = 1;
+
+		private static final int TIMED_OUT = 2;
+
+		private static final int DONE = 3;
+
+		private final OptionSource source;
+
+		private final AtomicInteger timedOutCount;
+
+		private final AtomicInteger state = new AtomicInteger(PENDING);
+
+		private final long submittedNanos = System.nanoTime();
+
+		private volatile long startedNanos;
+
+		private volatile boolean abandoned;
+
+		SourceCall(final OptionSource source, final AtomicInteger timedOutCount) {
+			this.source = source;
+			this.timedOutCount = timedOutCount;
+		}
+
+		@Override
+		public List<Option> apply(final ResourceResolver resourceResolver) {
+			List<Option> sourceOptions = null;
+
+			startedNanos = System.nanoTime();
+
+			if (state.compareAndSet(PENDING, RUNNING)) {
+				try {
+					sourceOptions = source.getOptions(resourceResolver, () -> abandoned);
+				} finally {
+					if (state.getAndSet(DONE) == TIMED_OUT) {
+						timedOutCount.decrementAndGet();
+					}
+				}
+			}
+
+			return sourceOptions;
+		}
+
+		/**
+		 * Abandon this call if it has not started.
+		 *
+		 * @return true if the call was abandoned, false if it has already started
+		 */
+		boolean abandon() {
+			final boolean abandonedBeforeStart = state.compareAndSet(PENDING, DONE);
+
+			if (abandonedBeforeStart) {
+				abandoned = true;
+			}
+
+			return abandonedBeforeStart;
+		}
+
+		/**
+		 * Abandon this call while it is running, counting it as timed out until it completes.
+		 */
+		void timeOut() {
+			abandoned = true;
+
+			// counted before the transition, so that a call completing concurrently never leaves the count negative
+			timedOutCount.incrementAndGet();
+
+			if (!state.compareAndSet(RUNNING, TIMED_OUT)) {
+				timedOutCount.decrementAndGet();
+			}
+		}
+
+		long getRemainingMillis() {
+			final long started = state.get() == PENDING ? submittedNanos : startedNanos;
+			final long elapsed = NANOSECONDS.toMillis(System.nanoTime() - started);
+
+			return Math.max(source.getTimeout() - elapsed, 0);
+		}
+
+		long getTimeout() {
+			return source.getTimeout();
+		}
+
+		String getName() {
+			return source.getName();
+		}
+	}
+}
@@ -1,16 +1,27 @@
 package com.kayrasolutions.aem.foundation.core.servlets.optionsprovider;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import org.apache.sling.api.SlingHttpServletRequest;
 import org.apache.sling.api.SlingHttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.net.HttpHeaders;
+import com.google.common.primitives.Ints;
+import com.kayrasolutions.aem.foundation.core.cache.PrincipalFingerprint;
 import com.kayrasolutions.aem.foundation.core.servlets.AbstractJsonResponseServlet;
+import com.kayrasolutions.aem.foundation.core.servlets.impl.EncodedResponse;
+import com.kayrasolutions.aem.foundation.core.servlets.impl.EncodedResponseCache;
 
 /**
  * Base class for providing a list of "options" to a component dialog widget. An
@@ -20,6 +31,16 @@ import com.kayrasolutions.aem.foundation.core.servlets.AbstractJsonResponseServl
  */
 public abstract class AbstractOptionsProviderServlet extends AbstractJsonResponseServlet {
 
+	private static final Logger LOG = LoggerFactory.getLogger(AbstractOptionsProviderServlet.class);
+
+	private static final String PARAMETER_QUERY = "q";
+
+	private static final String PARAMETER_OFFSET = "offset";
+
+	private static final String PARAMETER_LIMIT = "limit";
+
+	private static final String INDEX_KEY_PREFIX = "index|";
+
 	private static final long serialVersionUID = 1L;
 
 	/**
@@ -39,19 +60,172 @@ public abstract class AbstractOptionsProviderServlet extends AbstractJsonRespons
 	 */
 	protected abstract Optional<String> getOptionsRoot(final SlingHttpServletRequest request);
 
+	/**
+	 * Get the key used to cache the encoded response for this request. The key
+	 * must account for every request attribute that varies the list of options
+	 * (e.g. selectors or parameters); if the options depend on the access rights
+	 * of the current user, override <code>isPrincipalScoped</code> so that cached
+	 * responses are shared only between users with the same group membership.
+	 * If a key is returned, the encoded response is served from the cache until a
+	 * resource at or below one of the dependency paths changes.
+	 *
+	 * @param request Sling request
+	 * @return optional cache key, absent if the response should not be cached
+	 */
+	protected Optional<String> getCacheKey(final SlingHttpServletRequest request) {
+		return Optional.empty();
+	}
+
+	/**
+	 * Get the repository paths that the list of options is built from. Only
+	 * called if a cache key is present for the request.
+	 *
+	 * @param request Sling request
+	 * @return paths whose changes invalidate the cached response
+	 */
+	protected Collection<String> getDependencyPaths(final SlingHttpServletRequest request) {
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Override this method to enable server-side filtering and paging of options
+	 * using the <code>q</code>, <code>offset</code>, and <code>limit</code> request
+	 * parameters. Options are matched on a prefix of their text or of any word in
+	 * their text, ignoring case and accents, and are returned sorted by text.
+	 * If a cache key is present for the request, the search index is cached
+	 * alongside the encoded response and invalidated with it, so that options are
+	 * only built and indexed once per content change. Options marked as partial
+	 * (see <code>setPartial</code>) are never cached. Without a cache key, or
+	 * while the response cache is disabled, options are filtered on each request
+	 * without building an index.
+	 *
+	 * @param request Sling request
+	 * @return true if options should be filtered and paged
+	 */
+	protected boolean isSearchable(final SlingHttpServletRequest request) {
+		return false;
+	}
+
 	@Override
 	protected final void doGet(final SlingHttpServletRequest request, final SlingHttpServletResponse response)
 			throws IOException {
+		final Optional<String> cacheKey = getCacheKey(request);
+
+		// search results are paged from the cached index rather than cached individually, and only JSON is cached
+		if (cacheKey.isPresent() && !hasSearchParameters(request) && !acceptsBinaryFormat(request)) {
+			// 304 responses must carry the same Vary header as the full response
+			addVary(response, HttpHeaders.ACCEPT);
+			addVary(response, HttpHeaders.ACCEPT_ENCODING);
+
+			final long lastModified = getLastModified(request);
+			final String fingerprintTag = getFingerprintTag(request);
+			final boolean gzip = acceptsGzip(request);
+
+			final String entityTag = getEntityTag(fingerprintTag, gzip);
+
+			// options are only built if the fingerprint does not match, and validators are only set once the
+			// response is known to be complete
+			if (matchesConditions(request, entityTag, lastModified)) {
+				isNotModified(request, response, entityTag, lastModified);
+			} else {
+				final EncodedResponse encodedResponse = EncodedResponseCache.get(
+						getFullCacheKey(request, cacheKey.get()), getDependencyPaths(request), () -> {
+							final byte[] json = encodeJson(getResponseObject(request));
+
+							return EncodedResponse.create(json, getEntityTag(json));
+						}, encoded -> !isPartial(request));
+
+				if (isPartial(request)) {
+					response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+
+					writeEncodedJsonResponse(response, encodedResponse.getBytes(), false);
+				} else if (isNotModified(request, response, fingerprintTag == null
+						? getEntityTag(encodedResponse.getEntityTag(), gzip) : entityTag, lastModified)) {
+					LOG.debug("cached response not modified for entity tag : {}", encodedResponse.getEntityTag());
+				} else if (gzip) {
+					writeEncodedJsonResponse(response, encodedResponse.getGzipBytes(), true);
+				} else {
+					writeEncodedJsonResponse(response, encodedResponse.getBytes(), false);
+				}
+			}
+		} else {
+			writeJsonResponse(request, response, () -> getResponseObject(request));
+		}
+	}
+
+	// internals
+
+	private Object getResponseObject(final SlingHttpServletRequest request) {
+		final List<Option> options = isSearchable(request) ? search(request) : getCheckedOptions(request);
+
+		final Optional<String> optionsRoot = getOptionsRoot(request);
+
+		return optionsRoot.isPresent() ? ImmutableMap.of(optionsRoot.get(), options) : options;
+	}
+
+	private List<Option> getCheckedOptions(final SlingHttpServletRequest request) {
 		final List<Option> options = getOptions(request);
 
 		checkNotNull(options, "option list must not be null");
 
-		final Optional<String> optionsRoot = getOptionsRoot(request);
+		return options;
+	}
+
+	private List<Option> search(final SlingHttpServletRequest request) {
+		final Optional<String> cacheKey = getCacheKey(request);
 
-		if (optionsRoot.isPresent()) {
-			writeJsonResponse(response, ImmutableMap.of(optionsRoot.get(), options));
+		final String query = request.getParameter(PARAMETER_QUERY);
+		final int offset = Math.max(getIntParameter(request, PARAMETER_OFFSET, 0), 0);
+		final int limit = Math.max(getIntParameter(request, PARAMETER_LIMIT, Integer.MAX_VALUE), 0);
+
+		final List<Option> result;
+
+		// an index is only worth building if it is retained, otherwise the options are filtered directly
+		if (cacheKey.isPresent() && EncodedResponseCache.isEnabled()) {
+			// options are only built and indexed if the index is not cached for the key and principal set
+			final OptionIndex index = EncodedResponseCache.getValue(
+					INDEX_KEY_PREFIX + getFullCacheKey(request, cacheKey.get()), getDependencyPaths(request),
+					OptionIndex.class, () -> buildIndex(request), built -> !isPartial(request));
+
+			result = index.search(query, offset, limit);
 		} else {
-			writeJsonResponse(response, options);
+			result = OptionIndex.search(getCheckedOptions(request), query, offset, limit);
 		}
+
+		return result;
+	}
+
+	private OptionIndex buildIndex(final SlingHttpServletRequest request) {
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final List<Option> options = getCheckedOptions(request);
+		final OptionIndex index = new OptionIndex(options);
+
+		LOG.debug("built option index for {} option(s) in {}ms", options.size(), stopwatch.elapsed(MILLISECONDS));
+
+		return index;
+	}
+
+	private String getFullCacheKey(final SlingHttpServletRequest request, final String cacheKey) {
+		final StringBuilder builder = new StringBuilder(getClass().getName()).append('|');
+
+		if (isPrincipalScoped(request)) {
+			builder.append(PrincipalFingerprint.get(request.getResourceResolver())).append('|');
+		}
+
+		return builder.append(cacheKey).toString();
+	}
+
+	private boolean hasSearchParameters(final SlingHttpServletRequest request) {
+		return isSearchable(request) && (request.getParameter(PARAMETER_QUERY) != null
+				|| request.getParameter(PARAMETER_OFFSET) != null || request.getParameter(PARAMETER_LIMIT) != null);
+	}
+
+	private static int getIntParameter(final SlingHttpServletRequest request, final String name,
+			final int defaultValue) {
+		final String parameter = request.getParameter(name);
+		final Integer value = parameter == null ? null : Ints.tryParse(parameter);
+
+		return value == null ? defaultValue : value;
 	}
 }
@@ -0,0 +1,218 @@
+package com.kayrasolutions.aem.foundation.core.servlets.optionsprovider;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix index over the text of a list of options. Option text is reduced to a
+ * sort key that ignores case and accents; options are sorted by this key and a
+ * query matches an option if it is a prefix of the key or of any word within
+ * the key. Word starts are indexed by offset into the key, so the index takes
+ * space linear in the total length of the option text.
+ */
+final class OptionIndex {
+
+	private static final Pattern PATTERN_MARKS = Pattern.compile("\\p{M}+");
+
+	private final Option[] options;
+
+	// sort keys of the options, by ordinal
+	private final String[] keys;
+
+	// word starts (including the start of each key) sorted by the remainder of the key from that position, stored
+	// as option ordinals and key offsets rather than as substrings
+	private final int[] ordinals;
+
+	private final int[] offsets;
+
+	OptionIndex(final List<Option> options) {
+		final String[] unsortedKeys = new String[options.size()];
+		final Integer[] order = new Integer[options.size()];
+
+		for (int i = 0; i < unsortedKeys.length; i++) {
+			unsortedKeys[i] = getKey(options.get(i).getText());
+			order[i] = i;
+		}
+
+		Arrays.sort(order, getOrder(options, unsortedKeys));
+
+		this.options = new Option[order.length];
+		keys = new String[order.length];
+
+		// each entry packs an ordinal into the high and an offset into the low 32 bits
+		final List<Long> entries = new ArrayList<>(order.length * 2);
+
+		for (int ordinal = 0; ordinal < order.length; ordinal++) {
+			final String key = unsortedKeys[order[ordinal]];
+
+			this.options[ordinal] = options.get(order[ordinal]);
+			keys[ordinal] = key;
+
+			for (int j = 0; j < key.length(); j++) {
+				if (isWordStart(key, j)) {
+					entries.add((long) ordinal << 32 | j);
+				}
+			}
+		}
+
+		entries.sort((first, second) -> compare(keys[(int) (first >>> 32)], (int) (long) first,
+				keys[(int) (second >>> 32)], (int) (long) second));
+
+		ordinals = new int[entries.size()];
+		offsets = new int[entries.size()];
+
+		for (int i = 0; i < ordinals.length; i++) {
+			final long entry = entries.get(i);
+
+			ordinals[i] = (int) (entry >>> 32);
+			offsets[i] = (int) entry;
+		}
+	}
+
+	/**
+	 * Get a page of the options matching a query, in sort key order.
+	 *
+	 * @param query  query text, or null to match all options
+	 * @param offset number of matching options to skip
+	 * @param limit  maximum number of options to return
+	 * @return matching options
+	 */
+	List<Option> search(final String query, final int offset, final int limit) {
+		final String key = query == null ? "" : getKey(query).trim();
+
+		final List<Option> result = new ArrayList<>();
+
+		if (key.isEmpty()) {
+			for (int i = offset; i < options.length && result.size() < limit; i++) {
+				result.add(options[i]);
+			}
+		} else {
+			// an option may match on more than one word, so matches are collected in ordinal order
+			final BitSet matches = new BitSet(options.length);
+
+			for (int i = lowerBound(key); i < ordinals.length && matches(i, key); i++) {
+				matches.set(ordinals[i]);
+			}
+
+			int skipped = 0;
+
+			for (int i = matches.nextSetBit(0); i >= 0 && result.size() < limit; i = matches.nextSetBit(i + 1)) {
+				if (skipped < offset) {
+					skipped++;
+				} else {
+					result.add(options[i]);
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Get a page of the options matching a query without building an index, for
+	 * options that are only searched once. Options are matched and ordered as by
+	 * an index over the same options.
+	 *
+	 * @param options options to search
+	 * @param query   query text, or null to match all options
+	 * @param offset  number of matching options to skip
+	 * @param limit   maximum number of options to return
+	 * @return matching options
+	 */
+	static List<Option> search(final List<Option> options, final String query, final int offset,
+			final int limit) {
+		final String key = query == null ? "" : getKey(query).trim();
+
+		final String[] optionKeys = new String[options.size()];
+		final List<Integer> matches = new ArrayList<>();
+
+		for (int i = 0; i < optionKeys.length; i++) {
+			optionKeys[i] = getKey(options.get(i).getText());
+
+			if (matches(optionKeys[i], key)) {
+				matches.add(i);
+			}
+		}
+
+		matches.sort(getOrder(options, optionKeys));
+
+		final List<Option> result = new ArrayList<>();
+
+		for (int i = offset; i < matches.size() && result.size() < limit; i++) {
+			result.add(options.get(matches.get(i)));
+		}
+
+		return result;
+	}
+
+	// internals
+
+	private static Comparator<Integer> getOrder(final List<Option> options, final String[] keys) {
+		return Comparator.<Integer, String>comparing(i -> keys[i])
+				.thenComparing(i -> String.valueOf(options.get(i).getText()));
+	}
+
+	private static boolean isWordStart(final String key, final int index) {
+		return Character.isLetterOrDigit(key.charAt(index))
+				&& (index == 0 || !Character.isLetterOrDigit(key.charAt(index - 1)));
+	}
+
+	private static boolean matches(final String optionKey, final String key) {
+		boolean matches = key.isEmpty();
+
+		for (int j = 0; j < optionKey.length() && !matches; j++) {
+			matches = isWordStart(optionKey, j) && optionKey.regionMatches(j, key, 0, key.length());
+		}
+
+		return matches;
+	}
+
+	private static String getKey(final String text) {
+		final String normalized = text == null ? "" : Normalizer.normalize(text, Normalizer.Form.NFD);
+
+		return PATTERN_MARKS.matcher(normalized).replaceAll("").toLowerCase(Locale.ROOT);
+	}
+
+	private boolean matches(final int entry, final String key) {
+		return keys[ordinals[entry]].regionMatches(offsets[entry], key, 0, key.length());
+	}
+
+	private int lowerBound(final String key) {
+		int low = 0;
+		int high = ordinals.length;
+
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+
+			if (compare(keys[ordinals[mid]], offsets[mid], key, 0) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+
+		return low;
+	}
+
+	/**
+	 * Compare the remainders of two strings from the given offsets, in the same
+	 * order as <code>String.compareTo</code>.
+	 */
+	private static int compare(final String a, final int aOffset, final String b, final int bOffset) {
+		final int length = Math.min(a.length() - aOffset, b.length() - bOffset);
+
+		int result = 0;
+
+		for (int i = 0; i < length && result == 0; i++) {
+			result = a.charAt(aOffset + i) - b.charAt(bOffset + i);
+		}
+
+		return result == 0 ? (a.length() - aOffset) - (b.length() - bOffset) : result;
+	}
+}
@@ -0,0 +1,72 @@
+package com.kayrasolutions.aem.foundation.core.servlets.optionsprovider;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.apache.sling.api.resource.ResourceResolver;
+
+/**
+ * Source of options for the <code>AbstractCompositeOptionsProviderServlet</code>.
+ * Sources are called concurrently with their own service resource resolver, so
+ * implementations must not retain request-bound objects. Sources that time out
+ * are abandoned rather than interrupted, so implementations that block or loop
+ * should check the abandoned flag passed to <code>getOptions</code> and return
+ * early once it is set.
+ */
+@FunctionalInterface
+public interface OptionSource {
+
+	long DEFAULT_TIMEOUT = 2000;
+
+	int DEFAULT_MAX_TIMED_OUT_CALLS = 2;
+
+	/**
+	 * Get the options provided by this source.
+	 *
+	 * @param resourceResolver service resource resolver, closed after this method
+	 *                         returns
+	 * @return list of options
+	 */
+	List<Option> getOptions(ResourceResolver resourceResolver);
+
+	/**
+	 * Get the options provided by this source, returning early if the call is
+	 * abandoned. Override this method if the source may run longer than its
+	 * timeout; the options returned by an abandoned call are discarded.
+	 *
+	 * @param resourceResolver service resource resolver, closed after this method
+	 *                         returns
+	 * @param abandoned        true once the caller has stopped waiting for the
+	 *                         options of this call
+	 * @return list of options
+	 */
+	default List<Option> getOptions(final ResourceResolver resourceResolver, final BooleanSupplier abandoned) {
+		return getOptions(resourceResolver);
+	}
+
+	/**
+	 * @return time in milliseconds to wait for the options of this source, once
+	 *         it has started, before the call is abandoned and its options are
+	 *         omitted from the result
+	 */
+	default long getTimeout() {
+		return DEFAULT_TIMEOUT;
+	}
+
+	/**
+	 * @return name identifying this source across requests, used in log
+	 *         messages and to count its timed-out calls
+	 */
+	default String getName() {
+		return getClass().getName();
+	}
+
+	/**
+	 * @return maximum number of timed-out calls of this source that may still be
+	 *         running; further requests omit the options of this source until
+	 *         one of those calls completes
+	 */
+	default int getMaxTimedOutCalls() {
+		return DEFAULT_MAX_TIMED_OUT_CALLS;
+	}
+}
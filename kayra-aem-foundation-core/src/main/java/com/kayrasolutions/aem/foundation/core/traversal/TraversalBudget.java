@@ -0,0 +1,71 @@
+package com.kayrasolutions.aem.foundation.core.traversal;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.kayrasolutions.aem.foundation.api.TraversalResult;
+import com.kayrasolutions.aem.foundation.core.traversal.impl.DefaultTraversalResult;
+
+/**
+ * Tracks the time and node-visit budget of a single bounded traversal. Instances
+ * are not thread-safe and should not be reused across traversals.
+ */
+public final class TraversalBudget {
+
+	private final Instant deadline;
+
+	private final int maxVisits;
+
+	private int visitedCount;
+
+	private boolean truncated;
+
+	/**
+	 * @param deadline time after which no further nodes may be visited
+	 * @return budget limited by the given deadline
+	 */
+	public static TraversalBudget forDeadline(final Instant deadline) {
+		return new TraversalBudget(deadline, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param maxVisits maximum number of nodes to visit
+	 * @return budget limited by the given visit count
+	 */
+	public static TraversalBudget forMaxVisits(final int maxVisits) {
+		return new TraversalBudget(Instant.MAX, maxVisits);
+	}
+
+	private TraversalBudget(final Instant deadline, final int maxVisits) {
+		this.deadline = deadline;
+		this.maxVisits = maxVisits;
+	}
+
+	/**
+	 * Record a visit to the next node, if the budget allows it.
+	 *
+	 * @return true if the node may be visited, false if the budget is exhausted and
+	 *         the traversal should stop
+	 */
+	public boolean visit() {
+		if (!truncated && (visitedCount >= maxVisits || Instant.now().isAfter(deadline))) {
+			truncated = true;
+		}
+
+		if (!truncated) {
+			visitedCount++;
+		}
+
+		return !truncated;
+	}
+
+	/**
+	 * @param results matches found during the traversal
+	 * @param <T>     type of traversed item
+	 * @return traversal result containing the given matches and the state of this
+	 *         budget
+	 */
+	public <T> TraversalResult<T> toResult(final List<T> results) {
+		return new DefaultTraversalResult<>(results, truncated, visitedCount);
+	}
+}
@@ -0,0 +1,43 @@
+package com.kayrasolutions.aem.foundation.core.traversal.impl;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.base.Objects;
+import com.kayrasolutions.aem.foundation.api.TraversalResult;
+
+public final class DefaultTraversalResult<T> implements TraversalResult<T> {
+
+	private final List<T> results;
+
+	private final boolean truncated;
+
+	private final int visitedCount;
+
+	public DefaultTraversalResult(final List<T> results, final boolean truncated, final int visitedCount) {
+		this.results = Collections.unmodifiableList(results);
+		this.truncated = truncated;
+		this.visitedCount = visitedCount;
+	}
+
+	@Override
+	public List<T> getResults() {
+		return results;
+	}
+
+	@Override
+	public boolean isTruncated() {
+		return truncated;
+	}
+
+	@Override
+	public int getVisitedCount() {
+		return visitedCount;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this).add("results", results.size()).add("truncated", truncated)
+				.add("visitedCount", visitedCount).toString();
+	}
+}
@@ -3,8 +3,6 @@ package com.kayrasolutions.aem.foundation.core.utils;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.apache.sling.api.resource.Resource.RESOURCE_TYPE_NON_EXISTING;
 
-import java.util.regex.Pattern;
-
 import org.apache.sling.api.SlingHttpServletRequest;
 import org.apache.sling.api.resource.ResourceResolver;
 
@@ -15,6 +13,8 @@ import com.kayrasolutions.aem.foundation.core.constants.PathConstants;
  */
 public final class PathUtils {
 
+	private static final String CONTENT_PREFIX = PathConstants.PATH_CONTENT + PathConstants.PATH_SEPARATOR;
+
 	/**
 	 * Deny outside instantiation.
 	 */
@@ -29,7 +29,24 @@ public final class PathUtils {
 	 * @return true if path is a valid content path
 	 */
 	public static boolean isContent(final String path) {
-		return Pattern.matches(PathConstants.REGEX_CONTENT, checkNotNull(path));
+		// equivalent to PathConstants.REGEX_CONTENT without the regular expression
+		return checkNotNull(path).length() > CONTENT_PREFIX.length() && path.startsWith(CONTENT_PREFIX)
+				&& path.charAt(CONTENT_PREFIX.length()) != '/';
+	}
+
+	/**
+	 * Get the index of the dot preceding the extension of a path, scanning only
+	 * the last path segment, so that dots in folder names (e.g.
+	 * <code>/content/site/v1.0/page</code>) are not taken for an extension.
+	 *
+	 * @param path JCR path, optionally with selectors and extension
+	 * @return index of the last dot in the last path segment, or -1 if the last
+	 *         segment has no extension
+	 */
+	public static int getExtensionIndex(final String path) {
+		final int index = checkNotNull(path).lastIndexOf('.');
+
+		return index > path.lastIndexOf('/') ? index : -1;
 	}
 
 	/**
@@ -48,7 +65,7 @@ public final class PathUtils {
 	 *
 	 * @param path             JCR path or external URL
 	 * @param resourceResolver Sling resource resolver
-	 * @return true if path resolves to a valid Sling resource
+	 * @return true if path does not resolve to a valid Sling resource
 	 */
 	public static boolean isExternal(final String path, final ResourceResolver resourceResolver) {
 		return RESOURCE_TYPE_NON_EXISTING
@@ -72,8 +89,8 @@ public final class PathUtils {
 	 * @return page path
 	 */
 	public static String getPagePath(final String path) {
-		return checkNotNull(path).contains(PathConstants.PATH_JCR_CONTENT)
-				? path.substring(0, path.indexOf(PathConstants.PATH_JCR_CONTENT))
-				: path;
+		final int pageBoundary = checkNotNull(path).indexOf(PathConstants.PATH_JCR_CONTENT);
+
+		return pageBoundary == -1 ? path : path.substring(0, pageBoundary);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.kayrasolutions.aem.foundation.core.utils;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import com.google.common.base.Objects;
+
+/**
+ * Immutable decomposition of a Sling request URL path into resource path,
+ * selectors, extension, and suffix, parsed in a single pass without
+ * regular expressions. Since no resource resolution is performed, the resource
+ * path is assumed to end at the first dot; everything from the first slash
+ * following that dot is the suffix. Plain repository paths may contain dots, so
+ * paths without a suffix should use <code>PathUtils</code>, which only looks
+ * for an extension in the last path segment.
+ * <p>
+ * Example: <code>/content/site/en/jcr:content/par.sel.json/suffix</code> has
+ * resource path <code>/content/site/en/jcr:content/par</code>, selectors
+ * <code>[sel]</code>, extension <code>json</code>, and suffix
+ * <code>/suffix</code>.
+ */
+public final class SlingPath {
+
+	/**
+	 * Parse a path.
+	 *
+	 * @param path JCR path, optionally with selectors, extension, and suffix
+	 * @return parsed path
+	 */
+	public static SlingPath parse(final String path) {
+		return new SlingPath(checkNotNull(path));
+	}
+
+	private final String path;
+
+	private final String resourcePath;
+
+	private final List<String> selectors;
+
+	private final String extension;
+
+	private final String suffix;
+
+	private SlingPath(final String path) {
+		this.path = path;
+
+		final int length = path.length();
+		final int dot = path.indexOf('.');
+		final int resourceEnd = dot == -1 ? length : dot;
+
+		resourcePath = path.substring(0, resourceEnd);
+
+		if (resourceEnd < length) {
+			int suffixStart = path.indexOf('/', resourceEnd);
+
+			if (suffixStart == -1) {
+				suffixStart = length;
+			}
+
+			final List<String> selectors = new ArrayList<>();
+
+			int start = resourceEnd + 1;
+
+			for (int i = start; i <= suffixStart; i++) {
+				if (i == suffixStart || path.charAt(i) == '.') {
+					selectors.add(path.substring(start, i));
+
+					start = i + 1;
+				}
+			}
+
+			// last dot-separated value is the extension
+			extension = selectors.remove(selectors.size() - 1);
+			this.selectors = Collections.unmodifiableList(selectors);
+			suffix = suffixStart < length ? path.substring(suffixStart) : null;
+		} else {
+			selectors = Collections.emptyList();
+			extension = null;
+			suffix = null;
+		}
+	}
+
+	/**
+	 * @return original path
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * @return path without selectors, extension, and suffix
+	 */
+	public String getResourcePath() {
+		return resourcePath;
+	}
+
+	/**
+	 * @return selectors, or empty list if none exist
+	 */
+	public List<String> getSelectors() {
+		return selectors;
+	}
+
+	/**
+	 * @return extension, if the path contains a dot
+	 */
+	public Optional<String> getExtension() {
+		return Optional.ofNullable(extension);
+	}
+
+	/**
+	 * @return suffix starting with '/', if present
+	 */
+	public Optional<String> getSuffix() {
+		return Optional.ofNullable(suffix);
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this).add("resourcePath", resourcePath).add("selectors", selectors)
+				.add("extension", extension).add("suffix", suffix).toString();
+	}
+}
@@ -0,0 +1,62 @@
+package com.kayrasolutions.aem.foundation.core.vanity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * In-memory index of <code>sling:vanityPath</code> values below
+ * <code>/content</code>, mapping vanity paths to pages and pages to vanity
+ * paths. The index is built with a service resource resolver and maintained
+ * from resource change events, so it is eventually consistent with the
+ * repository and does not apply the permissions of the calling user.
+ */
+public interface VanityIndex {
+
+	/**
+	 * Get the page for a vanity path within a site.
+	 *
+	 * @param siteRoot   site root path (e.g. <code>/content/site</code>)
+	 * @param vanityPath vanity path
+	 * @return page path, or empty if no page in the site has the vanity path
+	 */
+	Optional<String> getPagePath(String siteRoot, String vanityPath);
+
+	/**
+	 * Get the pages for a vanity path across all sites. More than one page is
+	 * returned if the vanity path collides.
+	 *
+	 * @param vanityPath vanity path
+	 * @return page paths in sorted order, or empty set if none exist
+	 */
+	Set<String> getPagePaths(String vanityPath);
+
+	/**
+	 * Get the vanity paths for a page.
+	 *
+	 * @param pagePath page path
+	 * @return vanity paths in property order, or empty list if none exist
+	 */
+	List<String> getVanityPaths(String pagePath);
+
+	/**
+	 * Get the first vanity path for a page.
+	 *
+	 * @param pagePath page path
+	 * @return first vanity path, or empty if none exist
+	 */
+	Optional<String> getVanityPath(String pagePath);
+
+	/**
+	 * Get vanity paths that are assigned to more than one page.
+	 *
+	 * @return map of colliding vanity paths to the corresponding page paths
+	 */
+	Map<String, Set<String>> getCollisions();
+
+	/**
+	 * @return true if the initial index build has completed
+	 */
+	boolean isReady();
+}
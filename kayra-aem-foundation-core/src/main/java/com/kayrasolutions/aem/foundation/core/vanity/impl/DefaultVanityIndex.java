@@ -0,0 +1,330 @@
+package com.kayrasolutions.aem.foundation.core.vanity.impl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import javax.jcr.query.Query;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChangeListener;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.propertytypes.ServiceDescription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.day.cq.wcm.api.NameConstants;
+import com.google.common.base.Stopwatch;
+import com.kayrasolutions.aem.foundation.core.constants.PathConstants;
+import com.kayrasolutions.aem.foundation.core.executor.FoundationExecutor;
+import com.kayrasolutions.aem.foundation.core.utils.PathUtils;
+import com.kayrasolutions.aem.foundation.core.vanity.VanityIndex;
+
+@Component(service = { VanityIndex.class, ResourceChangeListener.class }, immediate = true, property = {
+		ResourceChangeListener.PATHS + "=" + PathConstants.PATH_CONTENT,
+		ResourceChangeListener.CHANGES + "=ADDED",
+		ResourceChangeListener.CHANGES + "=CHANGED",
+		ResourceChangeListener.CHANGES + "=REMOVED",
+		ResourceChangeListener.PROPERTY_NAMES_HINT + "=" + NameConstants.PN_SLING_VANITY_PATH
+})
+@ServiceDescription("Kayra Solutions Vanity Index")
+public final class DefaultVanityIndex implements VanityIndex, ResourceChangeListener {
+
+	private static final Logger LOG = LoggerFactory.getLogger(DefaultVanityIndex.class);
+
+	private static final String QUERY = "SELECT * FROM [nt:base] AS s WHERE ISDESCENDANTNODE(s, '"
+			+ PathConstants.PATH_CONTENT + "') AND s.[" + NameConstants.PN_SLING_VANITY_PATH + "] IS NOT NULL";
+
+	@Reference
+	private FoundationExecutor executor;
+
+	// guarded by this
+	private Index index = new Index();
+
+	// guarded by this, true while a full build is in progress
+	private boolean building;
+
+	// guarded by this, true if incremental updates were lost and the index must be rebuilt
+	private boolean dirty;
+
+	// guarded by this, changes received during a build, applied once the build completes
+	private final Set<String> queuedChangedPagePaths = new LinkedHashSet<>();
+
+	private final Set<String> queuedRemovedPagePaths = new LinkedHashSet<>();
+
+	private volatile boolean ready;
+
+	@Override
+	public Optional<String> getPagePath(final String siteRoot, final String vanityPath) {
+		final String prefix = checkNotNull(siteRoot) + "/";
+
+		return getPagePaths(vanityPath).stream()
+				.filter(pagePath -> pagePath.equals(siteRoot) || pagePath.startsWith(prefix))
+				.findFirst();
+	}
+
+	@Override
+	public synchronized Set<String> getPagePaths(final String vanityPath) {
+		final SortedSet<String> pagePaths = index.vanityPathsToPagePaths.get(checkNotNull(vanityPath));
+
+		return pagePaths == null ? Collections.emptySet() : Collections.unmodifiableSet(new TreeSet<>(pagePaths));
+	}
+
+	@Override
+	public synchronized List<String> getVanityPaths(final String pagePath) {
+		return index.pagePathsToVanityPaths.getOrDefault(checkNotNull(pagePath), Collections.emptyList());
+	}
+
+	@Override
+	public Optional<String> getVanityPath(final String pagePath) {
+		return getVanityPaths(pagePath).stream().findFirst();
+	}
+
+	@Override
+	public synchronized Map<String, Set<String>> getCollisions() {
+		return index.vanityPathsToPagePaths.entrySet().stream()
+				.filter(entry -> entry.getValue().size() > 1)
+				.collect(Collectors.toMap(Map.Entry::getKey,
+						entry -> Collections.unmodifiableSet(new TreeSet<>(entry.getValue()))));
+	}
+
+	@Override
+	public boolean isReady() {
+		return ready;
+	}
+
+	@Override
+	public void onChange(final List<ResourceChange> changes) {
+		final Set<String> changedPagePaths = new LinkedHashSet<>();
+		final Set<String> removedPagePaths = new LinkedHashSet<>();
+
+		for (final ResourceChange change : changes) {
+			final String pagePath = PathUtils.getPagePath(change.getPath());
+
+			if (change.getType() == ResourceChange.ChangeType.REMOVED && !change.getPath().contains(
+					PathConstants.PATH_JCR_CONTENT)) {
+				removedPagePaths.add(pagePath);
+			} else {
+				changedPagePaths.add(pagePath);
+			}
+		}
+
+		final boolean update;
+
+		synchronized (this) {
+			if (building) {
+				// the build may or may not see these changes, so they are applied again once it completes
+				queuedChangedPagePaths.addAll(changedPagePaths);
+				queuedRemovedPagePaths.addAll(removedPagePaths);
+
+				update = false;
+			} else if (dirty) {
+				// a rebuild covers these changes
+				rebuild();
+
+				update = false;
+			} else {
+				removedPagePaths.forEach(index::removeTree);
+
+				update = true;
+			}
+		}
+
+		if (update && !changedPagePaths.isEmpty()) {
+			update(changedPagePaths);
+		}
+	}
+
+	@Activate
+	protected void activate() {
+		rebuild();
+	}
+
+	// internals
+
+	private static final class Index {
+
+		private final Map<String, SortedSet<String>> vanityPathsToPagePaths = new HashMap<>();
+
+		private final Map<String, List<String>> pagePathsToVanityPaths = new TreeMap<>();
+
+		private void index(final String pagePath, final List<String> vanityPaths) {
+			remove(pagePath);
+
+			if (!vanityPaths.isEmpty()) {
+				pagePathsToVanityPaths.put(pagePath, vanityPaths);
+
+				for (final String vanityPath : vanityPaths) {
+					final SortedSet<String> pagePaths = vanityPathsToPagePaths.computeIfAbsent(vanityPath,
+							key -> new TreeSet<>());
+
+					pagePaths.add(pagePath);
+
+					if (pagePaths.size() > 1) {
+						LOG.warn("vanity path : {} is assigned to multiple pages : {}", vanityPath, pagePaths);
+					}
+				}
+			}
+		}
+
+		private void removeTree(final String pagePath) {
+			final String prefix = pagePath + "/";
+
+			pagePathsToVanityPaths.keySet().stream()
+					.filter(path -> path.equals(pagePath) || path.startsWith(prefix))
+					.collect(Collectors.toList())
+					.forEach(this::remove);
+		}
+
+		private void remove(final String pagePath) {
+			final List<String> vanityPaths = pagePathsToVanityPaths.remove(pagePath);
+
+			if (vanityPaths != null) {
+				for (final String vanityPath : vanityPaths) {
+					final Set<String> pagePaths = vanityPathsToPagePaths.get(vanityPath);
+
+					pagePaths.remove(pagePath);
+
+					if (pagePaths.isEmpty()) {
+						vanityPathsToPagePaths.remove(vanityPath);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Start a full build unless one is already in progress. Changes received
+	 * during the build are queued and applied after the new index replaces the
+	 * current one.
+	 */
+	private synchronized void rebuild() {
+		if (!building) {
+			building = true;
+			dirty = false;
+
+			queuedChangedPagePaths.clear();
+			queuedRemovedPagePaths.clear();
+
+			executor.submit(this::build).exceptionally(e -> {
+				LOG.error("error building vanity index", e);
+
+				synchronized (this) {
+					// the next change retries the build
+					building = false;
+					dirty = true;
+				}
+
+				return null;
+			});
+		}
+	}
+
+	private void update(final Set<String> pagePaths) {
+		executor.submit(resourceResolver -> {
+			pagePaths.forEach(pagePath -> index(pagePath, readVanityPaths(resourceResolver, pagePath)));
+
+			return null;
+		}).exceptionally(e -> {
+			LOG.error("error updating vanity index for pages : " + pagePaths + ", rebuilding index", e);
+
+			markDirty();
+
+			return null;
+		});
+	}
+
+	private synchronized void markDirty() {
+		// a build in progress may have read the pages before the lost update, so build again once it completes
+		dirty = true;
+
+		rebuild();
+	}
+
+	private Void build(final ResourceResolver resourceResolver) {
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final Iterator<Resource> resources = resourceResolver.findResources(QUERY, Query.JCR_SQL2);
+
+		final Index builtIndex = new Index();
+
+		int count = 0;
+
+		while (resources.hasNext()) {
+			final Resource resource = resources.next();
+
+			builtIndex.index(PathUtils.getPagePath(resource.getPath()), getVanityPaths(resource));
+
+			count++;
+		}
+
+		final Set<String> changedPagePaths;
+
+		synchronized (this) {
+			index = builtIndex;
+
+			queuedRemovedPagePaths.forEach(index::removeTree);
+
+			changedPagePaths = new LinkedHashSet<>(queuedChangedPagePaths);
+
+			queuedChangedPagePaths.clear();
+			queuedRemovedPagePaths.clear();
+
+			building = false;
+			ready = true;
+
+			if (dirty) {
+				rebuild();
+
+				changedPagePaths.clear();
+			}
+		}
+
+		LOG.info("built vanity index for {} resource(s) in {}ms, collisions : {}", count,
+				stopwatch.elapsed(MILLISECONDS), getCollisions());
+
+		if (!changedPagePaths.isEmpty()) {
+			update(changedPagePaths);
+		}
+
+		return null;
+	}
+
+	private List<String> readVanityPaths(final ResourceResolver resourceResolver, final String pagePath) {
+		final Resource contentResource = resourceResolver.getResource(pagePath + PathConstants.PATH_JCR_CONTENT);
+
+		final Resource resource = contentResource == null ? resourceResolver.getResource(pagePath)
+				: contentResource;
+
+		return resource == null ? Collections.emptyList() : getVanityPaths(resource);
+	}
+
+	private List<String> getVanityPaths(final Resource resource) {
+		final String[] vanityPaths = resource.getValueMap().get(NameConstants.PN_SLING_VANITY_PATH, String[].class);
+
+		return vanityPaths == null ? Collections.emptyList()
+				: Collections.unmodifiableList(Arrays.stream(vanityPaths).filter(vanityPath -> !vanityPath.isEmpty())
+						.distinct().collect(Collectors.toList()));
+	}
+
+	private synchronized void index(final String pagePath, final List<String> vanityPaths) {
+		index.index(pagePath, vanityPaths);
+	}
+}